@@ -1,5 +1,6 @@
 plugins {
     `java-library`
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "net.unknownuser"
@@ -16,12 +17,91 @@ repositories {
 dependencies {
     testImplementation(platform("org.junit:junit-bom:5.10.0"))
     testImplementation("org.junit.jupiter:junit-jupiter")
+    testAnnotationProcessor(project(":processor"))
 }
 
 tasks.test {
     useJUnitPlatform()
 }
 
+// @Argument constructors are matched to their fields by parameter name
+tasks.compileTestJava {
+    options.compilerArgs.add("-parameters")
+}
+
+// option classes with 10 to 5000 fields, too large to keep as sources
+// and a thousand small, distinct subcommand classes, so each of them has to be reflected on its own
+val generateSyntheticOptions by tasks.registering {
+    val sizes = listOf(10, 100, 1000, 5000)
+    val subcommands = 1000
+    val outputDir = layout.buildDirectory.dir("generated/sources/synthetic/java")
+
+    inputs.property("sizes", sizes)
+    inputs.property("subcommands", subcommands)
+    outputs.dir(outputDir)
+
+    doLast {
+        val packageDir = outputDir.get().dir("net/callisto/argparse/synthetic").asFile
+        packageDir.mkdirs()
+
+        val shortNames = ('a'..'z') + ('A'..'Z')
+
+        for (size in sizes) {
+            var usedShortNames = 0
+            val source = StringBuilder()
+            source.append("package net.callisto.argparse.synthetic;\n\n")
+            source.append("import net.callisto.argparse.*;\n\n")
+            source.append("public class Synthetic$size {\n")
+
+            // a quarter each of positionals, options with a value, flags and counters
+            for (i in 0 until size) {
+                when (i % 4) {
+                    0 -> source.append("\t@Argument(positional = true)\n\tpublic int positional$i;\n")
+                    1 -> source.append("\t@Argument(optional = true)\n\tpublic String option$i;\n")
+                    2 -> source.append("\t@Argument(type = ArgumentType.TRUE_IF_PRESENT, optional = true)\n\tpublic boolean flag$i;\n")
+                    else -> {
+                        val shortName = if (usedShortNames < shortNames.size) ", shortName = \"${shortNames[usedShortNames++]}\"" else ""
+                        source.append("\t@Argument(type = ArgumentType.COUNT$shortName)\n\tpublic int count$i;\n")
+                    }
+                }
+            }
+
+            source.append("}\n")
+            packageDir.resolve("Synthetic$size.java").writeText(source.toString())
+        }
+
+        for (i in 0 until subcommands) {
+            val source = StringBuilder()
+            source.append("package net.callisto.argparse.synthetic;\n\n")
+            source.append("import net.callisto.argparse.*;\n\n")
+            source.append("public class Subcommand$i {\n")
+            source.append("\t@Argument(shortName = \"v\", type = ArgumentType.COUNT)\n\tpublic int verbosity;\n")
+            source.append("\t@Argument(shortName = \"n\", optional = true)\n\tpublic String name;\n")
+            source.append("\t@Argument(optional = true)\n\tpublic String option$i;\n")
+            source.append("\t@Argument(type = ArgumentType.TRUE_IF_PRESENT, optional = true)\n\tpublic boolean flag$i;\n")
+            source.append("}\n")
+            packageDir.resolve("Subcommand$i.java").writeText(source.toString())
+        }
+    }
+}
+
+sourceSets.named("jmh") {
+    java.srcDir(generateSyntheticOptions)
+}
+
+jmh {
+    // the benchmarks reuse the fixtures and generated parsers of the tests
+    includeTests.set(true)
+    profilers.add("gc")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+
+    // e.g. ./gradlew jmh -PjmhIncludes=ShortCluster
+    providers.gradleProperty("jmhIncludes").orNull?.let { includes.add(it) }
+}
+
 tasks.withType<JavaCompile> {
     options.encoding = "UTF-8"
 }
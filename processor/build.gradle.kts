@@ -0,0 +1,34 @@
+plugins {
+    `java-library`
+}
+
+group = "net.unknownuser"
+version = "1.0-SNAPSHOT"
+description = "Annotation processor generating reflection-free JavArgparse parsers"
+
+java.sourceCompatibility = JavaVersion.VERSION_23
+java.targetCompatibility = java.sourceCompatibility
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    // the annotations are read at compile time, the generated parsers use the exceptions at runtime
+    implementation(rootProject)
+
+    testImplementation(platform("org.junit:junit-bom:5.10.0"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+}
+
+tasks.test {
+    useJUnitPlatform()
+}
+
+tasks.withType<JavaCompile> {
+    options.encoding = "UTF-8"
+}
+
+tasks.withType<Javadoc> {
+    options.encoding = "UTF-8"
+}
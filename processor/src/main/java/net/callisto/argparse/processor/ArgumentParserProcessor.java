@@ -0,0 +1,201 @@
+package net.callisto.argparse.processor;
+
+import net.callisto.argparse.*;
+
+import javax.annotation.processing.*;
+import javax.lang.model.*;
+import javax.lang.model.element.*;
+import javax.lang.model.type.*;
+import javax.lang.model.util.*;
+import javax.tools.*;
+import java.io.*;
+import java.util.*;
+import java.util.function.*;
+
+@SupportedAnnotationTypes("net.callisto.argparse.GenerateParser")
+public class ArgumentParserProcessor extends AbstractProcessor {
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+	
+	@Override
+	public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+		for (Element element : roundEnv.getElementsAnnotatedWith(GenerateParser.class)) {
+			final TypeElement targetClass = (TypeElement) element;
+			
+			try {
+				final List<OptionModel> options = collectOptions(targetClass);
+				
+				if (options != null) {
+					writeParser(targetClass, options);
+				}
+			} catch (final IOException exc) {
+				error(targetClass, "Could not write the parser for '%s': %s", targetClass, exc.getMessage());
+			}
+		}
+		
+		return true;
+	}
+	
+	// mirrors the checks of ArgumentSchema, returns null if any of them failed
+	private List<OptionModel> collectOptions(final TypeElement targetClass) {
+		// the schema creates records and classes with an @Argument constructor through that constructor,
+		// a generated parser only ever calls the no-arg constructor and assigns the fields
+		if (targetClass.getKind() == ElementKind.RECORD) {
+			error(targetClass, "The record '%s' is created through its canonical constructor, which generated parsers do not support", targetClass);
+			return null;
+		}
+		
+		if (targetClass.getKind() != ElementKind.CLASS) {
+			error(targetClass, "The given class '%s' cannot be used to parse arguments", targetClass);
+			return null;
+		}
+		
+		if (hasArgumentConstructor(targetClass)) {
+			error(targetClass, "The class '%s' is created through its @Argument constructor, which generated parsers do not support", targetClass);
+			return null;
+		}
+		
+		// the schema makes a private constructor accessible, a generated parser in the same package can't
+		if (targetClass.getModifiers().contains(Modifier.ABSTRACT) || targetClass.getNestingKind().isNested() && !targetClass.getModifiers()
+			.contains(Modifier.STATIC) || !hasAccessibleConstructor(targetClass)) {
+			error(targetClass, "The class '%s' needs a non-private no-arg constructor to be created by a generated parser", targetClass);
+			return null;
+		}
+		
+		final List<OptionModel> options         = new ArrayList<>();
+		final Set<String>       longNames       = new HashSet<>();
+		final Set<Character>    shortNames      = new HashSet<>();
+		boolean                 valid           = true;
+		int                     relativeCount   = 0;
+		int                     positionalCount = 0;
+		
+		for (VariableElement field : ElementFilter.fieldsIn(targetClass.getEnclosedElements())) {
+			final Argument argument = field.getAnnotation(Argument.class);
+			if (argument == null) {
+				continue;
+			}
+			
+			final String typeName = typeName(field.asType());
+			
+			if (field.getModifiers().contains(Modifier.PRIVATE) || field.getModifiers().contains(Modifier.FINAL)) {
+				error(field, "The field '%s' has to be neither private nor final to be set by a generated parser", field);
+				valid = false;
+				continue;
+			}
+			
+			if (!ArgumentSchema.checkForInvalidCombinations(argument)) {
+				error(field, "The argument on the field '%s' has an invalid combination of types", field);
+				valid = false;
+				continue;
+			}
+			
+			if (argument.type() == ArgumentType.APPEND) {
+				error(field, "The field '%s' is an APPEND argument, which generated parsers do not support", field);
+				valid = false;
+				continue;
+			}
+			
+			if (typeName.equals(Lazy.class.getCanonicalName()) || typeName.equals(Supplier.class.getCanonicalName())) {
+				error(field, "The field '%s' is converted lazily, which generated parsers do not support", field);
+				valid = false;
+				continue;
+			}
+			
+			if (!isAllowed(argument.type(), typeName)) {
+				error(
+					field,
+					"Invalid class combination! Got '%s', but only %s allowed!",
+					typeName,
+					argument.type().getAllowedClasses()
+				);
+				valid = false;
+				continue;
+			}
+			
+			if (argument.shortName().length() > 1) {
+				error(field, "The short name '%s' is too long. Only 1 char long names are supported", argument.shortName());
+				valid = false;
+				continue;
+			}
+			
+			final String    longName  = NameConverter.camelToKebabCase(field.getSimpleName().toString());
+			final Character shortName = argument.shortName().isEmpty() ? null : argument.shortName().charAt(0);
+			
+			// like the runtime schema, names are unique among all arguments, positional or not
+			if (!longNames.add(longName)) {
+				error(field, "more than one instance of argument %s!", longName);
+				valid = false;
+				continue;
+			}
+			if (shortName != null && !shortNames.add(shortName)) {
+				error(field, "more than one instance of argument %s!", shortName);
+				valid = false;
+				continue;
+			}
+			
+			options.add(new OptionModel(
+				argument.positional() ? positionalCount++ : relativeCount++,
+				field.getSimpleName().toString(),
+				typeName,
+				argument.positional(),
+				argument.optional(),
+				longName,
+				shortName,
+				argument.type()
+			));
+		}
+		
+		return valid ? options : null;
+	}
+	
+	private String typeName(final TypeMirror type) {
+		return this.processingEnv.getTypeUtils().erasure(type).toString();
+	}
+	
+	private static boolean isAllowed(final ArgumentType type, final String typeName) {
+		return type.getAllowedClasses().isEmpty() || type.getAllowedClasses()
+			.stream()
+			.anyMatch(allowedClass -> allowedClass.getCanonicalName().equals(typeName));
+	}
+	
+	private static boolean hasArgumentConstructor(final TypeElement targetClass) {
+		return ElementFilter.constructorsIn(targetClass.getEnclosedElements())
+			.stream()
+			.anyMatch(constructor -> constructor.getAnnotation(Argument.class) != null);
+	}
+	
+	private static boolean hasAccessibleConstructor(final TypeElement targetClass) {
+		return ElementFilter.constructorsIn(targetClass.getEnclosedElements())
+			.stream()
+			.anyMatch(constructor -> constructor.getParameters()
+				.isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE));
+	}
+	
+	private void writeParser(final TypeElement targetClass, final List<OptionModel> options) throws IOException {
+		final Elements elements    = this.processingEnv.getElementUtils();
+		final String   packageName = elements.getPackageOf(targetClass).getQualifiedName().toString();
+		final String   binaryName  = elements.getBinaryName(targetClass).toString();
+		final String   parserName  = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+			.replace('$', '_') + "Parser";
+		
+		final String source = new ParserWriter(
+			packageName,
+			parserName,
+			targetClass.getQualifiedName().toString(),
+			options
+		).write();
+		
+		final String qualifiedParserName = packageName.isEmpty() ? parserName : packageName + "." + parserName;
+		final JavaFileObject file = this.processingEnv.getFiler().createSourceFile(qualifiedParserName, targetClass);
+		try (Writer writer = file.openWriter()) {
+			writer.write(source);
+		}
+	}
+	
+	private void error(final Element element, final String format, final Object... arguments) {
+		this.processingEnv.getMessager()
+			.printMessage(Diagnostic.Kind.ERROR, String.format(format, arguments), element);
+	}
+}
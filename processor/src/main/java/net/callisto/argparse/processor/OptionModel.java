@@ -0,0 +1,19 @@
+package net.callisto.argparse.processor;
+
+import net.callisto.argparse.*;
+
+// compile time counterpart of ArgumentInfo
+record OptionModel(
+	int index,
+	String fieldName,
+	String typeName,
+	boolean positional,
+	boolean optional,
+	String longName,
+	Character shortName,
+	ArgumentType type
+) {
+	boolean takesValue() {
+		return this.type == ArgumentType.DEFAULT || this.type == ArgumentType.APPEND;
+	}
+}
@@ -0,0 +1,413 @@
+package net.callisto.argparse.processor;
+
+import net.callisto.argparse.*;
+
+import java.util.*;
+
+// emits the source of a generated parser, which follows ArgumentParser step by step but without reflection
+final class ParserWriter {
+	private static final String EXCEPTIONS = "net.callisto.argparse.exceptions.";
+	private static final String FUNCTION   = "java.util.function.Function";
+	
+	private static final Map<String, String> PRIMITIVE_PARSERS = Map.of(
+		"boolean", "Boolean.parseBoolean",
+		"byte", "Byte.parseByte",
+		"short", "Short.parseShort",
+		"char", "parseChar",
+		"int", "Integer.parseInt",
+		"long", "Long.parseLong",
+		"float", "Float.parseFloat",
+		"double", "Double.parseDouble"
+	);
+	
+	private static final Map<String, String> COUNTER_TYPES = Map.ofEntries(
+		Map.entry("java.lang.Byte", "byte"),
+		Map.entry("java.lang.Short", "short"),
+		Map.entry("java.lang.Integer", "int"),
+		Map.entry("java.lang.Float", "float"),
+		Map.entry("java.lang.Double", "double")
+	);
+	
+	private static final Map<String, String> DEFAULT_CONVERTERS = Map.ofEntries(
+		Map.entry("java.lang.String", "s -> s"),
+		Map.entry("java.lang.Boolean", "Boolean::parseBoolean"),
+		Map.entry("java.lang.Byte", "Byte::parseByte"),
+		Map.entry("java.lang.Short", "Short::parseShort"),
+		Map.entry("java.lang.Character", "s -> parseChar(s)"),
+		Map.entry("java.lang.Integer", "Integer::parseInt"),
+		Map.entry("java.lang.Long", "Long::parseLong"),
+		Map.entry("java.lang.Float", "Float::parseFloat"),
+		Map.entry("java.lang.Double", "Double::parseDouble"),
+		Map.entry("java.nio.file.Path", "java.nio.file.Path::of"),
+		Map.entry("java.io.File", "java.io.File::new")
+	);
+	
+	private final String            packageName;
+	private final String            parserName;
+	private final String            targetName;
+	private final List<OptionModel> relativeOptions;
+	private final List<OptionModel> positionalOptions;
+	private final Set<String>       usedPrimitives = new TreeSet<>();
+	private final StringBuilder     source         = new StringBuilder();
+	private       boolean           usesCharParser = false;
+	
+	ParserWriter(final String packageName, final String parserName, final String targetName,
+		final List<OptionModel> options) {
+		this.packageName       = packageName;
+		this.parserName        = parserName;
+		this.targetName        = targetName;
+		this.relativeOptions   = options.stream().filter(option -> !option.positional()).toList();
+		this.positionalOptions = options.stream().filter(OptionModel::positional).toList();
+	}
+	
+	private static String stringLiteral(final String value) {
+		final StringBuilder literal = new StringBuilder("\"");
+		for (char c : value.toCharArray()) {
+			literal.append(escape(c, '"'));
+		}
+		return literal.append('"').toString();
+	}
+	
+	private static String charLiteral(final char value) {
+		return "'" + escape(value, '\'') + "'";
+	}
+	
+	private static String escape(final char c, final char quote) {
+		if (c == quote || c == '\\') {
+			return "\\" + c;
+		}
+		if (c < 0x20 || c > 0x7e) {
+			return String.format("\\u%04x", (int) c);
+		}
+		return String.valueOf(c);
+	}
+	
+	String write() {
+		if (!this.packageName.isEmpty()) {
+			line(0, "package %s;", this.packageName);
+			line(0, "");
+		}
+		
+		line(0, "@javax.annotation.processing.Generated(\"%s\")", ArgumentParserProcessor.class.getName());
+		line(0, "public final class %s {", this.parserName);
+		line(1, "private final java.util.Map<Class<?>, %s<String, ?>> conversionFunctions =", FUNCTION);
+		line(2, "new java.util.concurrent.ConcurrentHashMap<>();");
+		line(1, "");
+		line(1, "public <X> void registerTypeConverter(final Class<X> target, final %s<String, X> function) {", FUNCTION);
+		line(2, "this.conversionFunctions.put(target, function);");
+		line(1, "}");
+		line(1, "");
+		line(1, "public %s parseArgs(final String[] arguments) {", this.targetName);
+		line(2, "final State state = new State();");
+		line(2, "");
+		line(2, "state.handleArguments(arguments);");
+		line(2, "");
+		line(2, "state.verifyArguments();");
+		line(2, "");
+		line(2, "return state.target;");
+		line(1, "}");
+		line(1, "");
+		
+		writeState();
+		writeConverters();
+		
+		line(0, "}");
+		return this.source.toString();
+	}
+	
+	private void writeState() {
+		final int relativeCount = this.relativeOptions.size();
+		
+		line(1, "private final class State {");
+		line(2, "private final %s target = new %s();", this.targetName, this.targetName);
+		line(2, "private final boolean[] used = new boolean[%d];", relativeCount);
+		line(2, "private final int[] counters = new int[%d];", relativeCount);
+		line(2, "private int positionalIndex = 0;");
+		line(2, "");
+		
+		writeHandleArguments();
+		writeVerifyArguments();
+		writeHandleLongArgument();
+		writeHandleShortArgument();
+		writeHandlePositional();
+		
+		for (OptionModel option : this.relativeOptions) {
+			writeHandleOption(option);
+		}
+		
+		// every method ends with an empty line, the last one does not need it
+		this.source.setLength(this.source.length() - "\t\t\n".length());
+		line(1, "}");
+		line(1, "");
+	}
+	
+	private void writeHandleArguments() {
+		line(2, "void handleArguments(final String[] arguments) {");
+		line(3, "boolean stopParsingArguments = false;");
+		line(3, "");
+		line(3, "int i = 0;");
+		line(3, "while (i < arguments.length) {");
+		line(4, "final String argument = arguments[i];");
+		line(4, "");
+		line(4, "if (\"--\".equals(argument)) {");
+		line(5, "stopParsingArguments = true;");
+		line(5, "i += 1;");
+		line(5, "continue;");
+		line(4, "}");
+		line(4, "");
+		line(4, "if (stopParsingArguments || argument.isEmpty() || argument.charAt(0) != '-') {");
+		line(5, "i += handlePositional(argument);");
+		line(4, "} else if (argument.startsWith(\"--\")) {");
+		line(5, "i += handleLongArgument(arguments, i);");
+		line(4, "} else {");
+		line(5, "i += handleShortArgument(arguments, i);");
+		line(4, "}");
+		line(3, "}");
+		line(2, "}");
+		line(2, "");
+	}
+	
+	private void writeVerifyArguments() {
+		line(2, "void verifyArguments() {");
+		line(3, "if (this.positionalIndex < %d) {", this.positionalOptions.size());
+		line(4, "throw new %sNotEnoughArguments();", EXCEPTIONS);
+		line(3, "}");
+		
+		for (OptionModel option : this.relativeOptions) {
+			final boolean required = !option.optional() && option.type() != ArgumentType.COUNT;
+			
+			if (!required && option.type() == ArgumentType.DEFAULT) {
+				// field is already set
+				continue;
+			}
+			
+			line(3, "");
+			line(3, "if (!this.used[%d]) {", option.index());
+			if (required) {
+				line(4, "throw new %sRequiredArgumentNotUsed(%s);", EXCEPTIONS, stringLiteral(option.longName()));
+			} else {
+				switch (option.type()) {
+					case TRUE_IF_PRESENT -> assign(4, option, "\"false\"");
+					case FALSE_IF_PRESENT -> assign(4, option, "\"true\"");
+					default -> {
+						// the counters are ints already, other types need a cast
+						final String counterType = COUNTER_TYPES.getOrDefault(option.typeName(), option.typeName());
+						final String cast        = counterType.equals("int") ? "" : "(" + counterType + ") ";
+						
+						line(4, "this.target.%s = %sthis.counters[%d];", option.fieldName(), cast, option.index());
+					}
+				}
+			}
+			line(3, "}");
+		}
+		
+		line(2, "}");
+		line(2, "");
+	}
+	
+	private void writeHandleLongArgument() {
+		line(2, "int handleLongArgument(final String[] arguments, final int i) {");
+		line(3, "final String argument = arguments[i];");
+		line(3, "// e.g. --name=value, the name ends before the '='");
+		line(3, "final int    equals   = argument.indexOf('=', 2);");
+		line(3, "final String value    = equals < 0 ? null : argument.substring(equals + 1);");
+		line(3, "");
+		line(3, "switch (equals < 0 ? argument.substring(2) : argument.substring(2, equals)) {");
+		for (OptionModel option : this.relativeOptions) {
+			line(4, "case %s -> {", stringLiteral(option.longName()));
+			line(5, "return handleOption%d(arguments, i, value);", option.index());
+			line(4, "}");
+		}
+		line(4, "default -> throw new %sUnknownArgument(equals < 0 ? argument : argument.substring(0, equals));", EXCEPTIONS);
+		line(3, "}");
+		line(2, "}");
+		line(2, "");
+	}
+	
+	private void writeHandleShortArgument() {
+		line(2, "int handleShortArgument(final String[] arguments, final int i) {");
+		line(3, "final String argument = arguments[i];");
+		line(3, "");
+		line(3, "if (argument.length() < 2) {");
+		line(4, "throw new %sUnknownArgument(argument);", EXCEPTIONS);
+		line(3, "}");
+		line(3, "");
+		line(3, "// e.g. -xzf, treated as -x, then -z, then -f");
+		line(3, "for (int c = 1; c < argument.length(); c++) {");
+		line(4, "// like getopt, the rest of the cluster is the value (-ovalue, -vofile), the next argument only if it's last");
+		line(4, "if (takesValue(argument.charAt(c))) {");
+		line(5, "return handleShortOption(argument.charAt(c), arguments, i, c + 1 < argument.length() ? argument.substring(c + 1) : null);");
+		line(4, "}");
+		line(4, "");
+		line(4, "handleShortOption(argument.charAt(c), arguments, i, null);");
+		line(3, "}");
+		line(3, "");
+		line(3, "return 1;");
+		line(2, "}");
+		line(2, "");
+		line(2, "int handleShortOption(final char name, final String[] arguments, final int i, final String value) {");
+		line(3, "switch (name) {");
+		for (OptionModel option : this.relativeOptions) {
+			if (option.shortName() != null) {
+				line(4, "case %s -> {", charLiteral(option.shortName()));
+				line(5, "return handleOption%d(arguments, i, value);", option.index());
+				line(4, "}");
+			}
+		}
+		line(4, "default -> throw new %sUnknownArgument(\"-\" + name);", EXCEPTIONS);
+		line(3, "}");
+		line(2, "}");
+		line(2, "");
+		
+		final List<String> valueNames = new ArrayList<>();
+		for (OptionModel option : this.relativeOptions) {
+			if (option.shortName() != null && option.takesValue()) {
+				valueNames.add(charLiteral(option.shortName()));
+			}
+		}
+		
+		writeCharSwitch("takesValue", valueNames);
+	}
+	
+	private void writeCharSwitch(final String methodName, final List<String> matches) {
+		line(2, "boolean %s(final char name) {", methodName);
+		line(3, "return switch (name) {");
+		if (!matches.isEmpty()) {
+			line(4, "case %s -> true;", String.join(", ", matches));
+		}
+		line(4, "default -> false;");
+		line(3, "};");
+		line(2, "}");
+		line(2, "");
+	}
+	
+	private void writeHandlePositional() {
+		line(2, "int handlePositional(final String argument) {");
+		line(3, "if (this.positionalIndex == %d) {", this.positionalOptions.size());
+		line(4, "throw new %sTooManyPositionals();", EXCEPTIONS);
+		line(3, "}");
+		line(3, "");
+		line(3, "switch (this.positionalIndex++) {");
+		for (OptionModel option : this.positionalOptions) {
+			line(4, "case %d -> {", option.index());
+			assign(5, option, "argument");
+			line(4, "}");
+		}
+		line(3, "}");
+		line(3, "");
+		line(3, "return 1;");
+		line(2, "}");
+		line(2, "");
+	}
+	
+	private void writeHandleOption(final OptionModel option) {
+		// value is the inline value of --name=value or -ovalue, null if it has to come from arguments[i + 1]
+		line(2, "int handleOption%d(final String[] arguments, final int i, final String value) {", option.index());
+		line(3, "if (this.used[%d]) {", option.index());
+		line(4, "throw new %sDuplicateArgument(%s);", EXCEPTIONS, stringLiteral(option.longName()));
+		line(3, "}");
+		line(3, "");
+		
+		if (!option.takesValue()) {
+			line(3, "if (value != null) {");
+			line(4, "throw new %sUnexpectedValue(%s);", EXCEPTIONS, stringLiteral(option.longName()));
+			line(3, "}");
+			line(3, "");
+		}
+		
+		switch (option.type()) {
+			case COUNT -> {
+				line(3, "this.counters[%d] += 1;", option.index());
+				line(3, "return 1;");
+			}
+			case TRUE_IF_PRESENT, FALSE_IF_PRESENT -> {
+				line(3, "this.used[%d] = true;", option.index());
+				assign(3, option, option.type() == ArgumentType.TRUE_IF_PRESENT ? "\"true\"" : "\"false\"");
+				line(3, "return 1;");
+			}
+			default -> {
+				line(3, "if (value != null) {");
+				line(4, "this.used[%d] = true;", option.index());
+				assign(4, option, "value");
+				line(4, "return 1;");
+				line(3, "}");
+				line(3, "");
+				line(3, "if (i + 1 == arguments.length) {");
+				line(4, "throw new %sNotEnoughArguments();", EXCEPTIONS);
+				line(3, "}");
+				line(3, "");
+				line(3, "this.used[%d] = true;", option.index());
+				assign(3, option, "arguments[i + 1]");
+				line(3, "return 2;");
+			}
+		}
+		
+		line(2, "}");
+		line(2, "");
+	}
+	
+	private void assign(final int indent, final OptionModel option, final String value) {
+		line(indent, "this.target.%s = %s;", option.fieldName(), conversion(option.typeName(), value));
+	}
+	
+	private String conversion(final String typeName, final String value) {
+		if ("char".equals(typeName) || "java.lang.Character".equals(typeName)) {
+			this.usesCharParser = true;
+		}
+		
+		if (PRIMITIVE_PARSERS.containsKey(typeName)) {
+			this.usedPrimitives.add(typeName);
+			return String.format("convert_%s(%s)", typeName, value);
+		}
+		
+		return String.format(
+			"convert(%s, %s.class, %s)",
+			value,
+			typeName,
+			DEFAULT_CONVERTERS.getOrDefault(typeName, "null")
+		);
+	}
+	
+	private void writeConverters() {
+		// primitives get their own method, so the default path does not box
+		for (String primitive : this.usedPrimitives) {
+			final String wrapper = switch (primitive) {
+				case "int" -> "Integer";
+				case "char" -> "Character";
+				default -> Character.toUpperCase(primitive.charAt(0)) + primitive.substring(1);
+			};
+			
+			line(1, "private %s convert_%s(final String value) {", primitive, primitive);
+			line(2, "final %s<String, ?> function = this.conversionFunctions.get(%s.class);", FUNCTION, primitive);
+			line(2, "return function == null ? %s(value) : (%s) function.apply(value);", PRIMITIVE_PARSERS.get(primitive), wrapper);
+			line(1, "}");
+			line(1, "");
+		}
+		
+		if (this.usesCharParser) {
+			line(1, "private static char parseChar(final String value) {");
+			line(2, "if (value.length() != 1) {");
+			line(3, "throw new %sImpossibleConversion(value, char.class);", EXCEPTIONS);
+			line(2, "}");
+			line(2, "return value.charAt(0);");
+			line(1, "}");
+			line(1, "");
+		}
+		
+		line(1, "@SuppressWarnings(\"unchecked\")");
+		line(1, "private <X> X convert(final String value, final Class<X> target, final %s<String, X> fallback) {", FUNCTION);
+		line(2, "final %s<String, ?> function = this.conversionFunctions.get(target);", FUNCTION);
+		line(2, "if (function != null) {");
+		line(3, "return (X) function.apply(value);");
+		line(2, "}");
+		line(2, "if (fallback == null) {");
+		line(3, "throw new %sImpossibleConversion(value, target);", EXCEPTIONS);
+		line(2, "}");
+		line(2, "return fallback.apply(value);");
+		line(1, "}");
+	}
+	
+	private void line(final int indent, final String format, final Object... arguments) {
+		this.source.append("\t".repeat(indent)).append(String.format(format, arguments)).append('\n');
+	}
+}
@@ -0,0 +1,156 @@
+package net.callisto.argparse.processor;
+
+import net.callisto.argparse.*;
+import org.junit.jupiter.api.*;
+
+import javax.tools.*;
+import java.io.*;
+import java.net.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// runs the processor on classes compiled at test time and checks the errors it reports
+class ArgumentParserProcessorTests {
+	// the error messages of the processor, an empty list if a parser was generated
+	private static List<String> process(final String className, final String source) throws IOException {
+		final JavaCompiler                        compiler    = ToolProvider.getSystemJavaCompiler();
+		final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		final Path                                output      = Files.createTempDirectory("processor");
+		
+		try {
+			final String library = Path.of(URI.create(Argument.class.getProtectionDomain()
+				.getCodeSource()
+				.getLocation()
+				.toString())).toString();
+			
+			final JavaFileObject file = new SimpleJavaFileObject(
+				URI.create("string:///" + className + ".java"),
+				JavaFileObject.Kind.SOURCE
+			) {
+				@Override
+				public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+					return source;
+				}
+			};
+			
+			final JavaCompiler.CompilationTask task = compiler.getTask(
+				null,
+				null,
+				diagnostics,
+				List.of("-proc:only", "-classpath", library, "-s", output.toString(), "-d", output.toString()),
+				null,
+				List.of(file)
+			);
+			task.setProcessors(List.of(new ArgumentParserProcessor()));
+			task.call();
+			
+			final List<String> errors = diagnostics.getDiagnostics()
+				.stream()
+				.filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+				.map(diagnostic -> diagnostic.getMessage(Locale.ROOT))
+				.toList();
+			
+			// a parser is only written if there were no errors
+			assertEquals(errors.isEmpty(), Files.exists(output.resolve(className + "Parser.java")), errors::toString);
+			
+			return errors;
+		} finally {
+			try (Stream<Path> files = Files.walk(output)) {
+				for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+					Files.delete(path);
+				}
+			}
+		}
+	}
+	
+	@Test
+	void testValidClass() throws IOException {
+		assertEquals(List.of(), process("Valid", """
+			@net.callisto.argparse.GenerateParser
+			public class Valid {
+				@net.callisto.argparse.Argument(shortName = "n", positional = true)
+				public String name;
+				@net.callisto.argparse.Argument(shortName = "v", type = net.callisto.argparse.ArgumentType.COUNT)
+				public int verbosity;
+			}
+			"""));
+	}
+	
+	@Test
+	void testDuplicateNames() throws IOException {
+		// like ArgumentSchema, a positional and an option can't share a short name, in either order
+		assertEquals(List.of("more than one instance of argument x!"), process("PositionalFirst", """
+			@net.callisto.argparse.GenerateParser
+			public class PositionalFirst {
+				@net.callisto.argparse.Argument(shortName = "x", positional = true)
+				public String first;
+				@net.callisto.argparse.Argument(shortName = "x", optional = true)
+				public String second;
+			}
+			"""));
+		
+		assertEquals(List.of("more than one instance of argument x!"), process("OptionFirst", """
+			@net.callisto.argparse.GenerateParser
+			public class OptionFirst {
+				@net.callisto.argparse.Argument(shortName = "x", optional = true)
+				public String first;
+				@net.callisto.argparse.Argument(shortName = "x", positional = true)
+				public String second;
+			}
+			"""));
+		
+		assertEquals(List.of("more than one instance of argument x!"), process("TwoPositionals", """
+			@net.callisto.argparse.GenerateParser
+			public class TwoPositionals {
+				@net.callisto.argparse.Argument(shortName = "x", positional = true)
+				public String first;
+				@net.callisto.argparse.Argument(shortName = "x", positional = true)
+				public String second;
+			}
+			"""));
+	}
+	
+	@Test
+	void testConstructors() throws IOException {
+		// the schema can create all of these, a generated parser can't and says why
+		assertEquals(
+			List.of("The record 'Point' is created through its canonical constructor, which generated parsers do not support"),
+			process("Point", """
+				@net.callisto.argparse.GenerateParser
+				public record Point(@net.callisto.argparse.Argument(positional = true) int x) {}
+				""")
+		);
+		
+		assertEquals(
+			List.of("The class 'Annotated' is created through its @Argument constructor, which generated parsers do not support"),
+			process("Annotated", """
+				@net.callisto.argparse.GenerateParser
+				public class Annotated {
+					@net.callisto.argparse.Argument(positional = true)
+					int x;
+					
+					@net.callisto.argparse.Argument
+					Annotated(int x) {
+						this.x = x;
+					}
+				}
+				""")
+		);
+		
+		assertEquals(
+			List.of("The class 'Hidden' needs a non-private no-arg constructor to be created by a generated parser"),
+			process("Hidden", """
+				@net.callisto.argparse.GenerateParser
+				public class Hidden {
+					@net.callisto.argparse.Argument(positional = true)
+					int x;
+					
+					private Hidden() {}
+				}
+				""")
+		);
+	}
+}
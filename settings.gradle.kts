@@ -1,2 +1,3 @@
 rootProject.name = "JavArgparse"
 
+include("processor")
@@ -0,0 +1,49 @@
+package net.callisto.argparse;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+// the same repeated option, collected into a primitive array and into a list of wrappers
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AppendBenchmark {
+	public static class IntArrayIds {
+		@Argument(shortName = "n", type = ArgumentType.APPEND)
+		public int[] ids;
+	}
+	
+	public static class IntegerListIds {
+		@Argument(shortName = "n", type = ArgumentType.APPEND)
+		public List<Integer> ids;
+	}
+	
+	@Param({ "100", "50000" })
+	public int values;
+	
+	private final ArgumentParser<IntArrayIds>    arrayParser = new ArgumentParser<>(IntArrayIds.class);
+	private final ArgumentParser<IntegerListIds> listParser  = new ArgumentParser<>(IntegerListIds.class);
+	
+	private String[] arguments;
+	
+	@Setup
+	public void setup() {
+		this.arguments = new String[this.values * 2];
+		for (int i = 0; i < this.values; i++) {
+			this.arguments[i * 2]     = "-n";
+			this.arguments[i * 2 + 1] = Integer.toString(1_000 + i);
+		}
+	}
+	
+	@Benchmark
+	public IntArrayIds intArray() {
+		return this.arrayParser.parseArgs(this.arguments);
+	}
+	
+	@Benchmark
+	public IntegerListIds integerList() {
+		return this.listParser.parseArgs(this.arguments);
+	}
+}
@@ -0,0 +1,61 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.classes.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+// @file expansion against reading the whole file first, every argument after the first is passed to the rest consumer
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ArgumentFileBenchmark {
+	@Param({ "100000", "10000000" })
+	public int arguments;
+	
+	private final ArgumentParser<ConcurrentArgs> parser = new ArgumentParser<>(ConcurrentArgs.class);
+	
+	private Path file;
+	private long rest;
+	
+	@Setup
+	public void setup() throws IOException {
+		this.file = Files.createTempFile("arguments", ".txt");
+		try (Writer writer = Files.newBufferedWriter(this.file)) {
+			writer.write("1\n");
+			for (int i = 0; i < this.arguments; i++) {
+				writer.write("\"some directory/file-" + i + ".txt\"\n");
+			}
+		}
+		
+		this.parser.enableArgumentFiles(false);
+	}
+	
+	@TearDown
+	public void tearDown() throws IOException {
+		Files.delete(this.file);
+	}
+	
+	@Benchmark
+	public long argumentFile() {
+		this.rest = 0;
+		this.parser.parseArgs(List.of("@" + this.file).iterator(), argument -> this.rest++);
+		return this.rest;
+	}
+	
+	@Benchmark
+	public long readAllLines() throws IOException {
+		final List<String> arguments = new ArrayList<>();
+		for (String line : Files.readAllLines(this.file)) {
+			// the same quotes the tokenizer handles, which is enough for these lines
+			arguments.add(line.startsWith("\"") ? line.substring(1, line.length() - 1) : line);
+		}
+		
+		this.rest = 0;
+		this.parser.parseArgs(arguments.iterator(), argument -> this.rest++);
+		return this.rest;
+	}
+}
@@ -0,0 +1,47 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.classes.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+// parseBatch against parsing the lines one after another, scaling is seen by comparing the two across core counts
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BatchBenchmark {
+	@Param({ "100000" })
+	public int lines;
+	
+	private final ArgumentParser<ConcurrentArgs> parser = new ArgumentParser<>(ConcurrentArgs.class);
+	
+	private String[][] arguments;
+	
+	@Setup
+	public void setup() {
+		this.arguments = new String[this.lines][];
+		for (int i = 0; i < this.lines; i++) {
+			this.arguments[i] = new String[] { Integer.toString(i), "-vvv", "--name", "line " + i, "--flag" };
+		}
+	}
+	
+	@Benchmark
+	public long sequential() {
+		long parsed = 0;
+		for (String[] line : this.arguments) {
+			parsed += this.parser.parseArgs(line).id;
+		}
+		return parsed;
+	}
+	
+	@Benchmark
+	public long orderedBatch() {
+		return this.parser.parseBatch(Arrays.stream(this.arguments), true).mapToLong(result -> result.value().id).sum();
+	}
+	
+	@Benchmark
+	public long unorderedBatch() {
+		return this.parser.parseBatch(Arrays.stream(this.arguments), false).mapToLong(result -> result.value().id).sum();
+	}
+}
@@ -0,0 +1,24 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.classes.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.*;
+
+// completing has to stay in the microseconds, it runs on every key press of an in-process shell
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CompletionBenchmark {
+	private final Completer completer = new Completer(CompletionArgs.class);
+	
+	@Benchmark
+	public Completion completeOption() {
+		return this.completer.complete("-v", "--name", "a", "input", "--");
+	}
+	
+	@Benchmark
+	public Completion completeValue() {
+		return this.completer.complete("-v", "--name", "a", "-o", "/tm");
+	}
+}
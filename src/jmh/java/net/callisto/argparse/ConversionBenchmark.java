@@ -0,0 +1,43 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.classes.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.*;
+import java.util.concurrent.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ConversionBenchmark {
+	private final ArgumentParser<PrimitiveArgs> parser = new ArgumentParser<>(PrimitiveArgs.class);
+	private final PrimitiveArgs                 target = new PrimitiveArgs();
+	
+	private ArgumentInfo intArgument;
+	
+	@Setup
+	public void setup() {
+		this.intArgument = this.parser.getSchema()
+			.positionalArguments()
+			.stream()
+			.filter(argument -> argument.field().getType() == int.class)
+			.findFirst()
+			.orElseThrow();
+	}
+	
+	@Benchmark
+	public PrimitiveArgs writePrimitive() {
+		this.parser.setField(this.intArgument, this.target, "1000000");
+		return this.target;
+	}
+	
+	@Benchmark
+	public Object convertWrapper() {
+		return this.parser.convertType("1000000", Integer.class);
+	}
+	
+	@Benchmark
+	public Object convertPath() {
+		return this.parser.convertType("/dev/null", Path.class);
+	}
+}
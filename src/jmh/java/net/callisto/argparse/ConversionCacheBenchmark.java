@@ -0,0 +1,42 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.classes.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.*;
+import java.util.concurrent.*;
+
+// a few long values that repeat, converted with and without a cache
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ConversionCacheBenchmark {
+	private static final int VALUES = 16;
+	
+	private final ArgumentParser<OnlyCount> uncached = new ArgumentParser<>(OnlyCount.class);
+	private final ArgumentParser<OnlyCount> cached   = new ArgumentParser<>(OnlyCount.class);
+	private final String[]                  values   = new String[VALUES];
+	
+	@Setup
+	public void setup() {
+		this.uncached.registerTypeConverter(URI.class, URI::create);
+		this.cached.registerTypeConverter(URI.class, URI::create);
+		this.cached.enableConversionCache(URI.class, VALUES * 4);
+		
+		for (int i = 0; i < VALUES; i++) {
+			this.values[i] = "https://example.com/some/rather/long/path/" + i + "/to/a/resource?with=query&parameters=" + i;
+		}
+	}
+	
+	@Benchmark
+	@Threads(4)
+	public Object uncached() {
+		return this.uncached.convertType(this.values[ThreadLocalRandom.current().nextInt(VALUES)], URI.class);
+	}
+	
+	@Benchmark
+	@Threads(4)
+	public Object cached() {
+		return this.cached.convertType(this.values[ThreadLocalRandom.current().nextInt(VALUES)], URI.class);
+	}
+}
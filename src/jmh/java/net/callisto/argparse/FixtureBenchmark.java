@@ -0,0 +1,73 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.classes.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.*;
+
+// the test fixtures, parsed by ArgumentParser and by the parsers generated for them
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FixtureBenchmark {
+	private static final String[] PRIMITIVES  = { "true", "1", "2", "3", "4", "5", "6" };
+	private static final String[] ALL_TYPES   = { "value", "--true-if-present", "--false-if-present", "--count", "--count" };
+	private static final String[] COMBINATION = { "--true-if-present", "value", "-s" };
+	private static final String[] RECORD      = { "-vv", "server", "-p", "8080", "--dry-run" };
+	
+	private final ArgumentParser<AllArgumentTypes>          allTypesParser    = new ArgumentParser<>(AllArgumentTypes.class);
+	private final ArgumentParser<PrimitiveArgs>             primitivesParser  = new ArgumentParser<>(PrimitiveArgs.class);
+	private final ArgumentParser<WrapperArgs>               wrappersParser    = new ArgumentParser<>(WrapperArgs.class);
+	private final ArgumentParser<SimpleArgumentCombination> combinationParser = new ArgumentParser<>(SimpleArgumentCombination.class);
+	private final ArgumentParser<RecordArgs>                recordParser      = new ArgumentParser<>(RecordArgs.class);
+	
+	private final AllArgumentTypesParser          generatedAllTypesParser    = new AllArgumentTypesParser();
+	private final PrimitiveArgsParser             generatedPrimitivesParser  = new PrimitiveArgsParser();
+	private final WrapperArgsParser               generatedWrappersParser    = new WrapperArgsParser();
+	private final SimpleArgumentCombinationParser generatedCombinationParser = new SimpleArgumentCombinationParser();
+	
+	@Benchmark
+	public AllArgumentTypes allArgumentTypes() {
+		return this.allTypesParser.parseArgs(ALL_TYPES);
+	}
+	
+	@Benchmark
+	public PrimitiveArgs primitiveArgs() {
+		return this.primitivesParser.parseArgs(PRIMITIVES);
+	}
+	
+	@Benchmark
+	public WrapperArgs wrapperArgs() {
+		return this.wrappersParser.parseArgs(PRIMITIVES);
+	}
+	
+	@Benchmark
+	public SimpleArgumentCombination simpleArgumentCombination() {
+		return this.combinationParser.parseArgs(COMBINATION);
+	}
+	
+	@Benchmark
+	public RecordArgs recordArgs() {
+		return this.recordParser.parseArgs(RECORD);
+	}
+	
+	@Benchmark
+	public AllArgumentTypes generatedAllArgumentTypes() {
+		return this.generatedAllTypesParser.parseArgs(ALL_TYPES);
+	}
+	
+	@Benchmark
+	public PrimitiveArgs generatedPrimitiveArgs() {
+		return this.generatedPrimitivesParser.parseArgs(PRIMITIVES);
+	}
+	
+	@Benchmark
+	public WrapperArgs generatedWrapperArgs() {
+		return this.generatedWrappersParser.parseArgs(PRIMITIVES);
+	}
+	
+	@Benchmark
+	public SimpleArgumentCombination generatedSimpleArgumentCombination() {
+		return this.generatedCombinationParser.parseArgs(COMBINATION);
+	}
+}
@@ -0,0 +1,28 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.classes.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.util.concurrent.*;
+
+// printing only writes the cached bytes, rendering formats and wraps the whole help every time
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class HelpBenchmark {
+	@Param({ "40", "120" })
+	public int width;
+	
+	private final ArgumentParser<RecordArgs> parser = new ArgumentParser<>(RecordArgs.class);
+	
+	@Benchmark
+	public void printHelp() throws IOException {
+		this.parser.printHelp(OutputStream.nullOutputStream(), this.width);
+	}
+	
+	@Benchmark
+	public String renderHelp() {
+		return this.parser.getHelp(this.width);
+	}
+}
@@ -0,0 +1,33 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.classes.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.*;
+
+// the inline forms should only allocate the value itself, compare the gc.alloc.rate.norm with the separate form
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class InlineValueBenchmark {
+	private final ArgumentParser<ShortClusterArgs> parser = new ArgumentParser<>(ShortClusterArgs.class);
+	
+	private final String[] separate = { "--name", "value", "-o", "/tmp/output" };
+	private final String[] inline   = { "--name=value", "-o/tmp/output" };
+	private final String[] cluster  = { "-vvqo/tmp/output" };
+	
+	@Benchmark
+	public ShortClusterArgs separateValues() {
+		return this.parser.parseArgs(this.separate);
+	}
+	
+	@Benchmark
+	public ShortClusterArgs inlineValues() {
+		return this.parser.parseArgs(this.inline);
+	}
+	
+	@Benchmark
+	public ShortClusterArgs clusterWithValue() {
+		return this.parser.parseArgs(this.cluster);
+	}
+}
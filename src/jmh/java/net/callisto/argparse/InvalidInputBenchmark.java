@@ -0,0 +1,30 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.classes.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.*;
+
+// rejecting invalid arguments, by catching the exception of parseArgs and by tryParse
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class InvalidInputBenchmark {
+	private static final String[] INVALID = { "-vv", "--unknown", "-n", "name" };
+	
+	private final ArgumentParser<ShortClusterArgs> parser = new ArgumentParser<>(ShortClusterArgs.class);
+	
+	@Benchmark
+	public Object parseArgs() {
+		try {
+			return this.parser.parseArgs(INVALID);
+		} catch (final RuntimeException exc) {
+			return exc;
+		}
+	}
+	
+	@Benchmark
+	public ParseResult<ShortClusterArgs> tryParse() {
+		return this.parser.tryParse(INVALID);
+	}
+}
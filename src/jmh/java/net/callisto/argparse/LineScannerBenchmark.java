@@ -0,0 +1,86 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.classes.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.*;
+
+// splitting one command line, the scanner against the usual ways of doing it by hand
+// naiveSplit and regexSplit don't handle escapes, so they do less work than the others on the quoted line
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class LineScannerBenchmark {
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+	private static final Pattern ARGUMENT   = Pattern.compile("\"([^\"]*)\"|'([^']*)'|(\\S+)");
+	
+	private final ArgumentParser<ShortClusterArgs> parser = new ArgumentParser<>(ShortClusterArgs.class);
+	
+	@Param({ "-vv --name value -o /tmp/output", "-vv --name 'a long name' -o \"/tmp/some output\"" })
+	public String line;
+	
+	@Benchmark
+	public String[] scanner() {
+		return LineScanner.split(this.line);
+	}
+	
+	@Benchmark
+	public String[] tokenizer() {
+		final List<String> arguments = new ArrayList<>();
+		new ArgumentTokenizer(new StringReader(this.line)).forEachRemaining(arguments::add);
+		return arguments.toArray(String[]::new);
+	}
+	
+	// split on whitespace, then join the parts of quoted arguments again
+	@Benchmark
+	public String[] naiveSplit() {
+		final List<String> arguments = new ArrayList<>();
+		
+		StringBuilder quoted = null;
+		char          quote  = 0;
+		for (String part : WHITESPACE.split(this.line.strip())) {
+			if (quoted == null && !part.isEmpty() && (part.charAt(0) == '"' || part.charAt(0) == '\'')) {
+				quote  = part.charAt(0);
+				quoted = new StringBuilder(part.substring(1));
+			} else if (quoted != null) {
+				quoted.append(' ').append(part);
+			} else {
+				arguments.add(part);
+				continue;
+			}
+			
+			if (quoted.length() > 0 && quoted.charAt(quoted.length() - 1) == quote) {
+				quoted.setLength(quoted.length() - 1);
+				arguments.add(quoted.toString());
+				quoted = null;
+			}
+		}
+		
+		return arguments.toArray(String[]::new);
+	}
+	
+	@Benchmark
+	public String[] regexSplit() {
+		final List<String> arguments = new ArrayList<>();
+		final Matcher      matcher   = ARGUMENT.matcher(this.line);
+		
+		while (matcher.find()) {
+			for (int group = 1; group <= 3; group++) {
+				if (matcher.group(group) != null) {
+					arguments.add(matcher.group(group));
+					break;
+				}
+			}
+		}
+		
+		return arguments.toArray(String[]::new);
+	}
+	
+	@Benchmark
+	public ShortClusterArgs parseLine() {
+		return this.parser.parseLine(this.line);
+	}
+}
@@ -0,0 +1,32 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.classes.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.*;
+
+// the overhead of measuring a parse, without a listener nothing should be measured at all
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ParseListenerBenchmark {
+	private static final String[] ARGUMENTS = { "1", "-vv", "-n", "name", "--flag" };
+	
+	private final ArgumentParser<ConcurrentArgs> plain    = new ArgumentParser<>(ConcurrentArgs.class);
+	private final ArgumentParser<ConcurrentArgs> recorded = new ArgumentParser<>(ConcurrentArgs.class);
+	
+	@Setup
+	public void setup() {
+		this.recorded.setParseListener(new HistogramRecorder());
+	}
+	
+	@Benchmark
+	public ConcurrentArgs withoutListener() {
+		return this.plain.parseArgs(ARGUMENTS);
+	}
+	
+	@Benchmark
+	public ConcurrentArgs withHistogramRecorder() {
+		return this.recorded.parseArgs(ARGUMENTS);
+	}
+}
@@ -0,0 +1,31 @@
+package net.callisto.argparse;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.*;
+
+// compiling a schema happens once per class, creating a parser afterwards only looks it up
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SchemaBenchmark {
+	@Param({ "10", "100", "1000", "5000" })
+	public int fields;
+	
+	private Class<?> targetClass;
+	
+	@Setup
+	public void setup() {
+		this.targetClass = SyntheticArguments.load(this.fields);
+	}
+	
+	@Benchmark
+	public ArgumentSchema<?> compileSchema() {
+		return ArgumentSchema.compile(this.targetClass);
+	}
+	
+	@Benchmark
+	public ArgumentParser<?> createParser() {
+		return new ArgumentParser<>(this.targetClass);
+	}
+}
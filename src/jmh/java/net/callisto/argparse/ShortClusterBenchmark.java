@@ -0,0 +1,37 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.classes.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+// only the cluster is handled, the trailing arguments show whether its cost depends on the argv length
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ShortClusterBenchmark {
+	@Param({ "8", "1024" })
+	public int clusterLength;
+	
+	@Param({ "0", "10000" })
+	public int trailingArguments;
+	
+	private final ArgumentParser<ShortClusterArgs> parser = new ArgumentParser<>(ShortClusterArgs.class);
+	
+	private String[] arguments;
+	
+	@Setup
+	public void setup() {
+		this.arguments = new String[this.trailingArguments + 1];
+		Arrays.fill(this.arguments, "value");
+		this.arguments[0] = "-" + "v".repeat(this.clusterLength);
+	}
+	
+	@Benchmark
+	public ParseState<ShortClusterArgs> handleCluster() {
+		final ParseState<ShortClusterArgs> state = new ParseState<>(this.parser.getSchema());
+		this.parser.handleShortArgument(state, this.arguments, 0);
+		return state;
+	}
+}
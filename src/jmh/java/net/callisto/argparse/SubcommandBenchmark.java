@@ -0,0 +1,69 @@
+package net.callisto.argparse;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.*;
+
+// every subcommand has a class of its own, so registering them must not reflect any of them
+// neither startup nor dispatch should depend on the number of subcommands
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SubcommandBenchmark {
+	@Param({ "1", "10", "80", "1000" })
+	public int subcommands;
+	
+	private SubcommandParser parser;
+	private String[][]       arguments;
+	private int              next = 0;
+	
+	@Setup
+	public void setup() {
+		this.parser    = create(SyntheticArguments.loadSubcommands(this.subcommands, SubcommandBenchmark.class.getClassLoader()));
+		this.arguments = new String[this.subcommands][];
+		for (int i = 0; i < this.subcommands; i++) {
+			this.arguments[i] = new String[] { "subcommand-" + i, "-vv", "-n", "name" };
+		}
+		
+		// every parser already exists, dispatch only looks it up
+		for (String[] subcommand : this.arguments) {
+			this.parser.parseArgs(subcommand);
+		}
+	}
+	
+	private static SubcommandParser create(final Class<?>[] classes) {
+		final SubcommandParser subcommandParser = new SubcommandParser();
+		for (int i = 0; i < classes.length; i++) {
+			subcommandParser.registerSubcommand("subcommand-" + i, classes[i]);
+		}
+		return subcommandParser;
+	}
+	
+	// classes that were never reflected, defined again before every startup
+	@State(Scope.Thread)
+	public static class FreshClasses {
+		private Class<?>[] classes;
+		
+		@Setup(Level.Invocation)
+		public void define(final SubcommandBenchmark benchmark) {
+			this.classes = SyntheticArguments.loadSubcommands(benchmark.subcommands, new SyntheticArguments.FreshLoader());
+		}
+	}
+	
+	// cycles through the subcommands, so a parser cache that only keeps the last one doesn't help
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	public ParsedSubcommand dispatch() {
+		final String[] subcommand = this.arguments[this.next];
+		this.next = this.next + 1 == this.arguments.length ? 0 : this.next + 1;
+		return this.parser.parseArgs(subcommand);
+	}
+	
+	// registers the subcommands and parses one of them, which reflects only that one class
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@Measurement(iterations = 50)
+	@Warmup(iterations = 10)
+	public ParsedSubcommand startupAndDispatch(final FreshClasses fresh) {
+		return create(fresh.classes).parseArgs(this.arguments[0]);
+	}
+}
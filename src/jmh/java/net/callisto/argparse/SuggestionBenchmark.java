@@ -0,0 +1,40 @@
+package net.callisto.argparse;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.*;
+
+// resolving an abbreviation and suggesting names for a typo, both should barely grow with the option count
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SuggestionBenchmark {
+	@Param({ "10", "100", "1000", "5000" })
+	public int fields;
+	
+	private ArgumentSchema<?> schema;
+	private String            abbreviation;
+	private String            typo;
+	
+	@Setup
+	public void setup() {
+		this.schema = ArgumentSchema.of(SyntheticArguments.load(this.fields));
+		
+		final String name = this.schema.relativeArguments().get(this.schema.relativeArguments().size() / 2).longName();
+		this.abbreviation = "--" + name.substring(0, name.length() - 1);
+		this.typo         = new StringBuilder(name).insert(2, 'x').toString();
+		
+		// the trie is built on first use, that is not measured here
+		this.schema.trie();
+	}
+	
+	@Benchmark
+	public Object abbreviation() {
+		return this.schema.trie().find(this.abbreviation, 2, this.abbreviation.length());
+	}
+	
+	@Benchmark
+	public Object suggestion() {
+		return this.schema.trie().similar(this.typo, 2, 3);
+	}
+}
@@ -0,0 +1,112 @@
+package net.callisto.argparse;
+
+import java.io.*;
+import java.util.*;
+
+// argv for the synthetic option classes, which are generated by the generateSyntheticOptions task
+final class SyntheticArguments {
+	enum Shape {
+		// only the positionals
+		POSITIONAL,
+		// every relative argument by its long name, then the positionals
+		LONG,
+		// every short name in one cluster, repeated a few times, then the positionals
+		CLUSTERED
+	}
+	
+	private static final int CLUSTER_REPETITIONS = 4;
+	
+	private SyntheticArguments() {
+	}
+	
+	static Class<?> load(final int fields) {
+		try {
+			return Class.forName("net.callisto.argparse.synthetic.Synthetic" + fields);
+		} catch (final ClassNotFoundException exc) {
+			throw new IllegalStateException("run the generateSyntheticOptions task first", exc);
+		}
+	}
+	
+	// the generated subcommand classes, defined by the loader
+	static Class<?>[] loadSubcommands(final int count, final ClassLoader loader) {
+		final Class<?>[] classes = new Class<?>[count];
+		
+		try {
+			for (int i = 0; i < count; i++) {
+				classes[i] = Class.forName("net.callisto.argparse.synthetic.Subcommand" + i, false, loader);
+			}
+		} catch (final ClassNotFoundException exc) {
+			throw new IllegalStateException("run the generateSyntheticOptions task first", exc);
+		}
+		
+		return classes;
+	}
+	
+	// defines the synthetic classes again, so their schemas are not cached yet
+	static final class FreshLoader extends ClassLoader {
+		private static final String PACKAGE = "net.callisto.argparse.synthetic.";
+		
+		FreshLoader() {
+			super(SyntheticArguments.class.getClassLoader());
+		}
+		
+		@Override
+		protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+			if (!name.startsWith(PACKAGE)) {
+				return super.loadClass(name, resolve);
+			}
+			
+			synchronized (getClassLoadingLock(name)) {
+				final Class<?> loaded = findLoadedClass(name);
+				if (loaded != null) {
+					return loaded;
+				}
+				
+				try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+					if (in == null) {
+						throw new ClassNotFoundException(name);
+					}
+					
+					final byte[] bytes = in.readAllBytes();
+					return defineClass(name, bytes, 0, bytes.length);
+				} catch (final IOException exc) {
+					throw new ClassNotFoundException(name, exc);
+				}
+			}
+		}
+	}
+	
+	static String[] create(final ArgumentSchema<?> schema, final Shape shape) {
+		final List<String> arguments = new ArrayList<>();
+		
+		switch (shape) {
+			case POSITIONAL -> { /* nothing besides the positionals */ }
+			case LONG -> {
+				for (ArgumentInfo argument : schema.relativeArguments()) {
+					arguments.add("--" + argument.longName());
+					if (argument.getArgumentType() == ArgumentType.DEFAULT) {
+						arguments.add("value");
+					}
+				}
+			}
+			case CLUSTERED -> {
+				// the synthetic classes only give short names to counters, so they may repeat
+				final StringBuilder cluster = new StringBuilder("-");
+				for (int i = 0; i < CLUSTER_REPETITIONS; i++) {
+					for (ArgumentInfo argument : schema.relativeArguments()) {
+						if (argument.shortName() != null) {
+							cluster.append(argument.shortName());
+						}
+					}
+				}
+				arguments.add(cluster.toString());
+			}
+		}
+		
+		for (int i = 0; i < schema.positionalArguments().size(); i++) {
+			arguments.add(Integer.toString(i));
+		}
+		
+		return arguments.toArray(String[]::new);
+	}
+}
@@ -0,0 +1,31 @@
+package net.callisto.argparse;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.*;
+
+// a quarter of the fields are positionals, so the argv grows with the field count
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SyntheticParseBenchmark {
+	@Param({ "10", "100", "1000", "5000" })
+	public int fields;
+	
+	@Param({ "POSITIONAL", "LONG", "CLUSTERED" })
+	public SyntheticArguments.Shape shape;
+	
+	private ArgumentParser<?> parser;
+	private String[]          arguments;
+	
+	@Setup
+	public void setup() {
+		this.parser    = new ArgumentParser<>(SyntheticArguments.load(this.fields));
+		this.arguments = SyntheticArguments.create(this.parser.getSchema(), this.shape);
+	}
+	
+	@Benchmark
+	public Object parseArgs() {
+		return this.parser.parseArgs(this.arguments);
+	}
+}
@@ -0,0 +1,37 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.classes.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.*;
+
+// replaying cached tokens skips the option lookups of parseArgs, tokenizing shows what caching them saves
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TokenStreamBenchmark {
+	private final ArgumentParser<ShortClusterArgs> parser    = new ArgumentParser<>(ShortClusterArgs.class);
+	private final String[]                         arguments = { "-vvq", "--name=value", "--output", "/tmp/output" };
+	
+	private TokenStream tokens;
+	
+	@Setup
+	public void setup() {
+		this.tokens = this.parser.tokenize(this.arguments);
+	}
+	
+	@Benchmark
+	public TokenStream tokenize() {
+		return this.parser.tokenize(this.arguments);
+	}
+	
+	@Benchmark
+	public ShortClusterArgs parseArguments() {
+		return this.parser.parseArgs(this.arguments);
+	}
+	
+	@Benchmark
+	public ShortClusterArgs parseTokens() {
+		return this.parser.parseArgs(this.tokens);
+	}
+}
@@ -0,0 +1,87 @@
+package net.callisto.argparse;
+
+import java.util.*;
+
+// collects the values of an APPEND argument during one parse, primitives stay unboxed until the field is set
+abstract sealed class Accumulator {
+	private static final int INITIAL_CAPACITY = 8;
+	
+	abstract Object toValue();
+	
+	static final class Ints extends Accumulator {
+		private int[] values = new int[INITIAL_CAPACITY];
+		private int   size   = 0;
+		
+		void add(final int value) {
+			if (this.size == this.values.length) {
+				this.values = Arrays.copyOf(this.values, this.size * 2);
+			}
+			this.values[this.size++] = value;
+		}
+		
+		@Override
+		Object toValue() {
+			return Arrays.copyOf(this.values, this.size);
+		}
+	}
+	
+	static final class Longs extends Accumulator {
+		private long[] values = new long[INITIAL_CAPACITY];
+		private int    size   = 0;
+		
+		void add(final long value) {
+			if (this.size == this.values.length) {
+				this.values = Arrays.copyOf(this.values, this.size * 2);
+			}
+			this.values[this.size++] = value;
+		}
+		
+		@Override
+		Object toValue() {
+			return Arrays.copyOf(this.values, this.size);
+		}
+	}
+	
+	static final class Doubles extends Accumulator {
+		private double[] values = new double[INITIAL_CAPACITY];
+		private int      size   = 0;
+		
+		void add(final double value) {
+			if (this.size == this.values.length) {
+				this.values = Arrays.copyOf(this.values, this.size * 2);
+			}
+			this.values[this.size++] = value;
+		}
+		
+		@Override
+		Object toValue() {
+			return Arrays.copyOf(this.values, this.size);
+		}
+	}
+	
+	static final class Strings extends Accumulator {
+		private final List<String> values = new ArrayList<>();
+		
+		void add(final String value) {
+			this.values.add(value);
+		}
+		
+		@Override
+		Object toValue() {
+			return this.values.toArray(String[]::new);
+		}
+	}
+	
+	static final class Elements extends Accumulator {
+		private final List<Object> values = new ArrayList<>();
+		
+		void add(final Object value) {
+			this.values.add(value);
+		}
+		
+		@Override
+		Object toValue() {
+			return this.values;
+		}
+	}
+}
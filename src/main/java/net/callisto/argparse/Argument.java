@@ -3,7 +3,8 @@ package net.callisto.argparse;
 import java.lang.annotation.*;
 
 @Retention(value = RetentionPolicy.RUNTIME)
-@Target(value = ElementType.FIELD)
+// on a constructor, it marks the constructor taking the values of all non-static @Argument fields, matched by parameter name
+@Target(value = { ElementType.FIELD, ElementType.CONSTRUCTOR })
 public @interface Argument {
 	String shortName() default "";
 	
@@ -12,4 +13,7 @@ public @interface Argument {
 	boolean positional() default false;
 	
 	ArgumentType type() default ArgumentType.DEFAULT;
+	
+	// the description shown in the help, next to the type of the argument
+	String help() default "";
 }
@@ -0,0 +1,119 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.exceptions.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+// replaces @file arguments with the arguments in that file, reading them only when they are needed
+final class ArgumentFileExpander implements Iterator<String>, Closeable {
+	private record Source(Iterator<String> arguments, Path file, Closeable closeable) {
+	}
+	
+	private final Deque<Source> sources = new ArrayDeque<>();
+	private final boolean       recursive;
+	private       String        next;
+	
+	ArgumentFileExpander(final Iterator<String> arguments, final boolean recursive) {
+		this.sources.push(new Source(arguments, null, null));
+		this.recursive = recursive;
+	}
+	
+	static boolean isArgumentFile(final String argument) {
+		return argument.length() > 1 && argument.charAt(0) == '@';
+	}
+	
+	@Override
+	public boolean hasNext() {
+		while (this.next == null) {
+			final Source source = this.sources.peek();
+			if (source == null) {
+				return false;
+			}
+			
+			final boolean exhausted;
+			final String  argument;
+			try {
+				exhausted = !source.arguments().hasNext();
+				argument  = exhausted ? null : source.arguments().next();
+			} catch (final UncheckedIOException exc) {
+				throw unreadable(source, exc);
+			}
+			
+			if (exhausted) {
+				this.sources.pop();
+				closeSource(source);
+				continue;
+			}
+			
+			// files inside of files are only expanded if recursive
+			if (isArgumentFile(argument) && (source.file() == null || this.recursive)) {
+				open(argument.substring(1));
+			} else {
+				this.next = argument;
+			}
+		}
+		
+		return true;
+	}
+	
+	@Override
+	public String next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		
+		final String result = this.next;
+		this.next = null;
+		return result;
+	}
+	
+	private void open(final String file) {
+		final Path path;
+		final MappedFileReader reader;
+		try {
+			path = Path.of(file).toRealPath();
+			
+			for (Source source : this.sources) {
+				if (path.equals(source.file())) {
+					throw new RecursiveArgumentFile(path);
+				}
+			}
+			
+			reader = new MappedFileReader(path);
+		} catch (final IOException | InvalidPathException exc) {
+			throw new UnreadableArgumentFile(file, exc);
+		}
+		
+		this.sources.push(new Source(new ArgumentTokenizer(reader), path, reader));
+	}
+	
+	// e.g. malformed UTF-8, found while the file is read, reported like a file that can't be opened
+	private static RuntimeException unreadable(final Source source, final UncheckedIOException exc) {
+		if (source.file() == null) {
+			return exc;
+		}
+		
+		return new UnreadableArgumentFile(source.file().toString(), exc.getCause());
+	}
+	
+	private static void closeSource(final Source source) {
+		if (source.closeable() == null) {
+			return;
+		}
+		
+		try {
+			source.closeable().close();
+		} catch (final IOException exc) {
+			throw new UncheckedIOException(exc);
+		}
+	}
+	
+	@Override
+	public void close() {
+		while (!this.sources.isEmpty()) {
+			closeSource(this.sources.pop());
+		}
+	}
+}
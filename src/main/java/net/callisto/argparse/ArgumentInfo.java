@@ -1,31 +1,101 @@
 package net.callisto.argparse;
 
+import java.lang.invoke.*;
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.function.*;
 
 public class ArgumentInfo {
+	private final int          index;
 	private final Field        field;
+	// the constructor parameter the value is passed to, -1 if the field is set directly
+	private final int          parameter;
 	private final boolean      positional;
 	private final boolean      optional;
 	private final String       longName;
 	private final String       shortName;
 	private final ArgumentType type;
-	private       boolean      used = false;
+	// the type of a single value of an APPEND argument or the type a Lazy/Supplier converts to, null for all other arguments
+	private final Class<?>     elementType;
+	private final boolean      lazy;
+	// (Object, fieldType)void for the primitive paths, (Object, Object)void for everything else
+	// the Object is the target, or the values array of a target that is created through its constructor
+	private final MethodHandle setter;
+	private final MethodHandle genericSetter;
 	
-	ArgumentInfo(Field field, boolean positional, boolean optional, String longName, String shortName,
-		final ArgumentType type) {
+	ArgumentInfo(int index, Field field, int parameter, boolean positional, boolean optional, String longName,
+		String shortName, final ArgumentType type) {
+		this.index      = index;
 		this.field      = field;
+		this.parameter  = parameter;
 		this.positional = positional;
 		this.optional   = optional;
 		this.longName   = longName;
 		this.shortName  = shortName;
 		this.type       = type;
+		
+		this.lazy          = field.getType() == Lazy.class || field.getType() == Supplier.class;
+		this.elementType   = type == ArgumentType.APPEND || this.lazy ? elementType(field) : null;
+		this.setter        = parameter < 0 ? createSetter(field) : createValueSetter(field, parameter);
+		this.genericSetter = this.setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+	}
+	
+	private static MethodHandle createSetter(final Field field) {
+		try {
+			// the schema made the field accessible, so this neither checks access nor needs privateLookupIn
+			MethodHandle setter = MethodHandles.lookup().unreflectSetter(field);
+			
+			if (Modifier.isStatic(field.getModifiers())) {
+				setter = MethodHandles.dropArguments(setter, 0, Object.class);
+			}
+			
+			return setter.asType(MethodType.methodType(void.class, Object.class, field.getType()));
+		} catch (IllegalAccessException exc) {
+			throw new IllegalStateException(exc);
+		}
+	}
+	
+	// writes the (boxed) value into its slot of the values array
+	private static MethodHandle createValueSetter(final Field field, final int parameter) {
+		final MethodHandle setter = MethodHandles.insertArguments(MethodHandles.arrayElementSetter(Object[].class), 1, parameter);
+		return setter.asType(MethodType.methodType(void.class, Object.class, field.getType()));
+	}
+	
+	// raw lists and suppliers hold strings
+	private static Class<?> elementType(final Field field) {
+		if (field.getType().isArray()) {
+			return field.getType().getComponentType();
+		}
+		
+		if (field.getGenericType() instanceof ParameterizedType parameterized && parameterized.getActualTypeArguments()[0] instanceof Class<?> element) {
+			return element;
+		}
+		
+		return String.class;
+	}
+	
+	private static RuntimeException rethrow(final Throwable throwable) {
+		if (throwable instanceof RuntimeException runtimeException) {
+			return runtimeException;
+		}
+		if (throwable instanceof Error error) {
+			throw error;
+		}
+		return new IllegalStateException(throwable);
+	}
+	
+	public int index() {
+		return index;
 	}
 	
 	public Field field() {
 		return field;
 	}
 	
+	int parameter() {
+		return this.parameter;
+	}
+	
 	public boolean positional() {
 		return positional;
 	}
@@ -42,16 +112,118 @@ public class ArgumentInfo {
 		return shortName;
 	}
 	
-	public void use() {
-		this.used = true;
+	public ArgumentType getArgumentType() {
+		return this.type;
 	}
 	
-	public boolean hasBeenUsed() {
-		return this.used;
+	Class<?> elementType() {
+		return this.elementType;
 	}
 	
-	public ArgumentType getArgumentType() {
-		return this.type;
+	// the value is stored as given and only converted when it is read
+	boolean lazy() {
+		return this.lazy;
+	}
+	
+	void set(final Object target, final Object value) {
+		try {
+			this.genericSetter.invokeExact(target, value);
+		} catch (Throwable throwable) {
+			throw rethrow(throwable);
+		}
+	}
+	
+	void setBoolean(final Object target, final boolean value) {
+		try {
+			this.setter.invokeExact(target, value);
+		} catch (Throwable throwable) {
+			throw rethrow(throwable);
+		}
+	}
+	
+	void setByte(final Object target, final byte value) {
+		try {
+			this.setter.invokeExact(target, value);
+		} catch (Throwable throwable) {
+			throw rethrow(throwable);
+		}
+	}
+	
+	void setShort(final Object target, final short value) {
+		try {
+			this.setter.invokeExact(target, value);
+		} catch (Throwable throwable) {
+			throw rethrow(throwable);
+		}
+	}
+	
+	void setChar(final Object target, final char value) {
+		try {
+			this.setter.invokeExact(target, value);
+		} catch (Throwable throwable) {
+			throw rethrow(throwable);
+		}
+	}
+	
+	void setInt(final Object target, final int value) {
+		try {
+			this.setter.invokeExact(target, value);
+		} catch (Throwable throwable) {
+			throw rethrow(throwable);
+		}
+	}
+	
+	void setLong(final Object target, final long value) {
+		try {
+			this.setter.invokeExact(target, value);
+		} catch (Throwable throwable) {
+			throw rethrow(throwable);
+		}
+	}
+	
+	void setFloat(final Object target, final float value) {
+		try {
+			this.setter.invokeExact(target, value);
+		} catch (Throwable throwable) {
+			throw rethrow(throwable);
+		}
+	}
+	
+	void setDouble(final Object target, final double value) {
+		try {
+			this.setter.invokeExact(target, value);
+		} catch (Throwable throwable) {
+			throw rethrow(throwable);
+		}
+	}
+	
+	// counters are written as numbers, without going through a converter
+	void setCount(final Object target, final int count) {
+		final Class<?> fieldType = this.field.getType();
+		
+		if (fieldType == int.class) {
+			setInt(target, count);
+		} else if (fieldType == byte.class) {
+			setByte(target, (byte) count);
+		} else if (fieldType == short.class) {
+			setShort(target, (short) count);
+		} else if (fieldType == float.class) {
+			setFloat(target, count);
+		} else if (fieldType == double.class) {
+			setDouble(target, count);
+		} else if (fieldType == Integer.class) {
+			set(target, count);
+		} else if (fieldType == Byte.class) {
+			set(target, (byte) count);
+		} else if (fieldType == Short.class) {
+			set(target, (short) count);
+		} else if (fieldType == Float.class) {
+			set(target, (float) count);
+		} else if (fieldType == Double.class) {
+			set(target, (double) count);
+		} else {
+			throw new IllegalStateException("cannot count into " + fieldType);
+		}
 	}
 	
 	@Override
@@ -60,7 +232,7 @@ public class ArgumentInfo {
 			return false;
 		}
 		final ArgumentInfo argumentInfo = (ArgumentInfo) object;
-		return positional == argumentInfo.positional && optional == argumentInfo.optional && used == argumentInfo.used && Objects.equals(
+		return index == argumentInfo.index && positional == argumentInfo.positional && optional == argumentInfo.optional && Objects.equals(
 			field,
 			argumentInfo.field
 		) && Objects.equals(longName, argumentInfo.longName) && Objects.equals(shortName, argumentInfo.shortName) && type == argumentInfo.type;
@@ -68,6 +240,6 @@ public class ArgumentInfo {
 	
 	@Override
 	public int hashCode() {
-		return Objects.hash(field, positional, optional, longName, shortName, type, used);
+		return Objects.hash(index, field, positional, optional, longName, shortName, type);
 	}
 }
@@ -1,112 +1,432 @@
 package net.callisto.argparse;
 
 import net.callisto.argparse.exceptions.*;
+import net.callisto.argparse.functions.*;
 
 import java.io.*;
-import java.lang.reflect.*;
+import java.nio.*;
+import java.nio.channels.*;
 import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.function.*;
+import java.util.stream.*;
 
 public class ArgumentParser<T> {
-	private static final String LONG_ARGUMENT_PREFIX = "--";
+	static final String LONG_ARGUMENT_PREFIX = "--";
 	
-	private final Map<Class<?>, Function<String, ?>> conversionFunctions = new HashMap<>();
+	private static final Map<Class<?>, Function<String, ?>> DEFAULT_CONVERSION_FUNCTIONS = createDefaultConversionFunctions();
 	
-	private final List<ArgumentInfo>         relativeArguments = new ArrayList<>();
-	private final List<ArgumentInfo>         positionalArguments = new ArrayList<>();
-	private final Map<ArgumentInfo, Integer> countedArgs = new HashMap<>();
-	private final Class<T>                   targetClass;
-	private final T                          object;
+	// only holds converters registered on this parser, the defaults are shared
+	private final Map<Class<?>, Function<String, ?>> conversionFunctions = new ConcurrentHashMap<>();
+	private final PrimitiveConverters                primitiveConverters = new PrimitiveConverters();
+	private final Map<Class<?>, ConversionCache>     conversionCaches    = new ConcurrentHashMap<>();
+	
+	// the settings may change while other threads parse, so every parse sees either the old or the new value
+	private volatile boolean argumentFiles          = false;
+	private volatile boolean recursiveArgumentFiles = false;
+	private volatile boolean abbreviations          = false;
+	private volatile boolean suggestions            = false;
+	
+	private volatile ParseListener parseListener = null;
+	private volatile String        programName;
+	
+	// the help printed last, most programs only ever print it for one width
+	private volatile CachedHelp cachedHelp = null;
+	
+	private final ArgumentSchema<T> schema;
+	
+	private record CachedHelp(int width, byte[] bytes) {}
 	
 	public ArgumentParser(final Class<T> targetClass) {
-		if (targetClass.isInterface() || targetClass.isPrimitive() || targetClass.isArray() || Void.class.equals(
-			targetClass)) {
-			throw new IncompatibleClass(targetClass);
+		this(ArgumentSchema.of(targetClass));
+	}
+	
+	public ArgumentParser(final ArgumentSchema<T> schema) {
+		this.schema      = schema;
+		this.programName = schema.programName();
+	}
+	
+	public ArgumentSchema<T> getSchema() {
+		return this.schema;
+	}
+	
+	private static Map<Class<?>, Function<String, ?>> createDefaultConversionFunctions() {
+		final Map<Class<?>, Function<String, ?>> functions = new HashMap<>();
+		
+		// primitives are handled by PrimitiveConverters
+		functions.put(String.class, s -> s);
+		functions.put(Boolean.class, Boolean::parseBoolean);
+		functions.put(Byte.class, Byte::parseByte);
+		functions.put(Short.class, Short::parseShort);
+		functions.put(Character.class, PrimitiveConverters::parseChar);
+		functions.put(Integer.class, Integer::parseInt);
+		functions.put(Long.class, Long::parseLong);
+		functions.put(Float.class, Float::parseFloat);
+		functions.put(Double.class, Double::parseDouble);
+		functions.put(Path.class, Path::of);
+		functions.put(File.class, File::new);
+		
+		return Map.copyOf(functions);
+	}
+	
+	public <X> void registerTypeConverter(final Class<X> target, final Function<String, X> function) {
+		if (target.isPrimitive()) {
+			this.primitiveConverters.registerBoxed(target, function);
+		} else {
+			this.conversionFunctions.put(target, function);
 		}
 		
-		this.targetClass = targetClass;
-		
-		this.object = instanciateObject();
+		// values of the old converter must not be returned anymore
+		final ConversionCache cache = this.conversionCaches.get(target);
+		if (cache != null) {
+			cache.clear();
+		}
+	}
+	
+	// remembers up to maximumSize converted values of the type, least recently used ones are dropped first
+	// only for immutable types (enums, @Immutable classes, JDK value types like Path and records of those), the values are shared
+	public void enableConversionCache(final Class<?> target, final int maximumSize) {
+		if (target.isPrimitive() || !ConversionCache.isImmutable(target)) {
+			throw new IllegalArgumentException(target + " is not known to be immutable, its values cannot be cached");
+		}
 		
-		registerArguments();
+		this.conversionCaches.put(target, new ConversionCache(maximumSize));
+	}
+	
+	// null if there is no cache for the type
+	public CacheStatistics getConversionCacheStatistics(final Class<?> target) {
+		final ConversionCache cache = this.conversionCaches.get(target);
+		return cache == null ? null : cache.statistics();
+	}
+	
+	public void registerBooleanConverter(final ToBooleanFunction<String> converter) {
+		this.primitiveConverters.registerBooleanConverter(converter);
+	}
+	
+	public void registerByteConverter(final ToByteFunction<String> converter) {
+		this.primitiveConverters.registerByteConverter(converter);
+	}
+	
+	public void registerShortConverter(final ToShortFunction<String> converter) {
+		this.primitiveConverters.registerShortConverter(converter);
+	}
+	
+	public void registerCharConverter(final ToCharFunction<String> converter) {
+		this.primitiveConverters.registerCharConverter(converter);
+	}
+	
+	public void registerIntConverter(final ToIntFunction<String> converter) {
+		this.primitiveConverters.registerIntConverter(converter);
+	}
+	
+	public void registerLongConverter(final ToLongFunction<String> converter) {
+		this.primitiveConverters.registerLongConverter(converter);
+	}
+	
+	public void registerFloatConverter(final ToFloatFunction<String> converter) {
+		this.primitiveConverters.registerFloatConverter(converter);
+	}
+	
+	public void registerDoubleConverter(final ToDoubleFunction<String> converter) {
+		this.primitiveConverters.registerDoubleConverter(converter);
+	}
+	
+	// replaces @file arguments with the arguments in that file, like javac does
+	// if recursive, @file arguments inside of those files are replaced as well
+	public void enableArgumentFiles(final boolean recursive) {
+		// written before the flag that is read first, so a parse seeing the flag sees the setting
+		this.recursiveArgumentFiles = recursive;
+		this.argumentFiles          = true;
+	}
+	
+	// a long option may be shortened to any prefix only it starts with, like --verb for --verbose
+	public void enableAbbreviations() {
+		this.abbreviations = true;
+	}
+	
+	// unknown long options name up to three similar known ones in their message
+	public void enableSuggestions() {
+		this.suggestions = true;
+	}
+	
+	// receives the metrics of every parse, null removes the listener
+	public void setParseListener(final ParseListener listener) {
+		this.parseListener = listener;
+	}
+	
+	// the name shown in the usage, the kebab case name of the target class if it isn't set
+	public void setProgramName(final String programName) {
+		this.programName = programName != null ? programName : this.schema.programName();
+		this.cachedHelp  = null;
+	}
+	
+	// writes the help for the width in $COLUMNS (80 if it isn't set) in the charset of the terminal
+	public void printHelp(final OutputStream out) throws IOException {
+		printHelp(out, HelpFormatter.terminalWidth());
+	}
+	
+	// the help is rendered and encoded once per width, printing it again only writes the cached bytes
+	public void printHelp(final OutputStream out, final int width) throws IOException {
+		out.write(help(width));
+		out.flush();
+	}
+	
+	public void printHelp(final WritableByteChannel channel, final int width) throws IOException {
+		final ByteBuffer buffer = ByteBuffer.wrap(help(width));
 		
-		this.initializeDefaultConversionFunctions();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
 	}
 	
-	protected static boolean checkForInvalidCombinations(final Argument argument) {
-		if (argument.type() == ArgumentType.COUNT && argument.positional()) {
-			return false;
+	public String getHelp(final int width) {
+		return HelpFormatter.render(this.schema, this.programName, checkWidth(width));
+	}
+	
+	private byte[] help(final int width) {
+		final CachedHelp cached = this.cachedHelp;
+		if (cached != null && cached.width() == width) {
+			return cached.bytes();
 		}
 		
-		if(argument.positional() && argument.optional()) {
-			return false;
+		// only the help of the schema's own program name is shared by the parsers of the schema
+		final byte[] bytes = this.programName.equals(this.schema.programName())
+			? this.schema.help(checkWidth(width))
+			: getHelp(width).getBytes(HelpFormatter.terminalCharset());
+		this.cachedHelp = new CachedHelp(width, bytes);
+		return bytes;
+	}
+	
+	private static int checkWidth(final int width) {
+		if (width <= 0) {
+			throw new IllegalArgumentException("width must be positive: " + width);
 		}
 		
-		if ((argument.type() == ArgumentType.TRUE_IF_PRESENT || argument.type() == ArgumentType.FALSE_IF_PRESENT) && argument.positional()) {
-			return false;
+		return width;
+	}
+	
+	// every call works on its own state, so a parser may be shared between threads
+	public T parseArgs(final String[] arguments) {
+		final ParseState<T> state = new ParseState<>(this.schema);
+		
+		parse(state, arguments, null);
+		
+		return state.target();
+	}
+	
+	// the arguments are consumed one by one, so only the current one and the one after it are kept
+	public T parseArgs(final Iterator<String> arguments) {
+		return parseArgs(arguments, null);
+	}
+	
+	// positionals beyond the declared ones are passed to rest instead of throwing TooManyPositionals
+	public T parseArgs(final Iterator<String> arguments, final Consumer<String> rest) {
+		final ParseState<T> state = new ParseState<>(this.schema, rest, false);
+		
+		parse(state, null, arguments);
+		
+		return state.target();
+	}
+	
+	// unlike parseArgs, invalid arguments don't stop the parse, the result contains all errors instead
+	// only problems with argument files are still thrown
+	public ParseResult<T> tryParse(final String[] arguments) {
+		final ParseState<T> state = new ParseState<>(this.schema, null, true);
+		
+		parse(state, arguments, null);
+		
+		return result(state);
+	}
+	
+	private ParseResult<T> result(final ParseState<T> state) {
+		if (state.errors().isEmpty()) {
+			try {
+				return new ParseResult.Success<>(state.target());
+			} catch (final RuntimeException exc) {
+				// a constructor rejected the values
+				return new ParseResult.Failure<>(List.of(
+					new ParseError(ParseError.Code.INVALID_VALUE, -1, null, exc.getMessage())
+				));
+			}
 		}
 		
-		return true;
+		return new ParseResult.Failure<>(List.copyOf(state.errors()));
 	}
 	
-	protected void initializeDefaultConversionFunctions() {
-		this.registerTypeConverter(String.class, s -> s);
-		this.registerTypeConverter(Boolean.class, Boolean::parseBoolean);
-		this.registerTypeConverter(boolean.class, Boolean::parseBoolean);
-		this.registerTypeConverter(Byte.class, Byte::parseByte);
-		this.registerTypeConverter(byte.class, Byte::parseByte);
-		this.registerTypeConverter(Short.class, Short::parseShort);
-		this.registerTypeConverter(short.class, Short::parseShort);
-		this.registerTypeConverter(Integer.class, Integer::parseInt);
-		this.registerTypeConverter(int.class, Integer::parseInt);
-		this.registerTypeConverter(Long.class, Long::parseLong);
-		this.registerTypeConverter(long.class, Long::parseLong);
-		this.registerTypeConverter(Float.class, Float::parseFloat);
-		this.registerTypeConverter(float.class, Float::parseFloat);
-		this.registerTypeConverter(Double.class, Double::parseDouble);
-		this.registerTypeConverter(double.class, Double::parseDouble);
-		this.registerTypeConverter(Path.class, Path::of);
-		this.registerTypeConverter(File.class, File::new);
+	// classifies every argument against the schema once, the tokens can be inspected or cached and parsed later
+	public TokenStream tokenize(final String[] arguments) {
+		return TokenStream.tokenize(this.schema, arguments, this.abbreviations);
 	}
 	
-	public <X> void registerTypeConverter(final Class<X> target, final Function<String, X> function) {
-		this.conversionFunctions.put(target, function);
+	// the options are not looked up again, unless the tokens come from a parser with another schema or abbreviation setting
+	// argument files are not expanded
+	public T parseArgs(final TokenStream tokens) {
+		final ParseState<T> state = new ParseState<>(this.schema);
+		final TokenStream   own   = compatible(tokens);
+		
+		parse(state, parseState -> handleTokens(parseState, own));
+		
+		return state.target();
 	}
 	
-	public T parseArgs(final String[] arguments) {
-		handleArguments(arguments);
+	public ParseResult<T> tryParse(final TokenStream tokens) {
+		final ParseState<T> state = new ParseState<>(this.schema, null, true);
+		final TokenStream   own   = compatible(tokens);
+		
+		parse(state, parseState -> handleTokens(parseState, own));
 		
-		verifyArguments();
+		return result(state);
+	}
+	
+	private TokenStream compatible(final TokenStream tokens) {
+		return tokens.matches(this.schema, this.abbreviations) ? tokens : tokenize(tokens.sourceArguments());
+	}
+	
+	public T parseArgs(final Spliterator<String> arguments, final Consumer<String> rest) {
+		return parseArgs(Spliterators.iterator(arguments), rest);
+	}
+	
+	// splits the line like parseArgs(Reader, Consumer) does, e.g. deploy --env prod "my app"
+	public T parseLine(final CharSequence line) {
+		return parseArgs(LineScanner.split(line));
+	}
+	
+	public ParseResult<T> tryParseLine(final CharSequence line) {
+		final String[] arguments;
+		try {
+			arguments = LineScanner.split(line);
+		} catch (final UnterminatedQuote exc) {
+			return new ParseResult.Failure<>(List.of(
+				new ParseError(ParseError.Code.UNTERMINATED_QUOTE, -1, exc.getToken(), exc.getMessage())
+			));
+		}
 		
-		clearCounters();
+		return tryParse(arguments);
+	}
+	
+	// splits the reader on whitespace, quotes and backslashes work like in a shell
+	public T parseArgs(final Reader arguments, final Consumer<String> rest) {
+		return parseArgs(new ArgumentTokenizer(arguments), rest);
+	}
+	
+	// every line is parsed on its own, in parallel
+	// if ordered, the results keep the order of the lines, otherwise they come as soon as they are ready
+	public Stream<BatchResult<T>> parseBatch(final Stream<String[]> lines, final boolean ordered) {
+		return parseBatch(lines, Function.identity(), ordered);
+	}
+	
+	// every line of the file is split like a Reader, then parsed like a line of parseBatch(Stream, boolean)
+	public Stream<BatchResult<T>> parseBatch(final Path file, final boolean ordered) throws IOException {
+		return parseBatch(Files.lines(file), LineScanner::split, ordered);
+	}
+	
+	private <L> Stream<BatchResult<T>> parseBatch(final Stream<L> lines, final Function<L, String[]> splitter,
+		final boolean ordered) {
+		Stream<NumberingSpliterator.Numbered<L>> numbered = StreamSupport.stream(
+			new NumberingSpliterator<>(lines.spliterator()),
+			true
+		);
+		
+		if (!ordered) {
+			numbered = numbered.unordered();
+		}
 		
-		return this.object;
+		return numbered.map(line -> {
+			try {
+				return new BatchResult<>(line.index(), parseArgs(splitter.apply(line.value())), null);
+			} catch (final RuntimeException exc) {
+				return new BatchResult<T>(line.index(), null, exc);
+			}
+		}).onClose(lines::close);
+	}
+	
+	// handles and verifies either the array or the iterator, measuring it if anyone listens
+	private void parse(final ParseState<T> state, final String[] array, final Iterator<String> iterator) {
+		parse(state, parseState -> handle(parseState, array, iterator));
 	}
 	
-	protected T instanciateObject() {
+	private void parse(final ParseState<T> state, final Consumer<ParseState<T>> handler) {
+		final ParseListener listener = this.parseListener;
+		
+		if (listener == null && !ParseEvent.TYPE.isEnabled() && !ConversionEvent.TYPE.isEnabled()) {
+			handler.accept(state);
+			verifyArguments(state);
+			return;
+		}
+		
+		final ParseEvent event = new ParseEvent();
+		state.measure();
+		event.begin();
+		
+		final long start   = System.nanoTime();
+		long       handled   = start;
+		boolean    verifying = false;
+		boolean    thrown    = true;
+		
 		try {
-			final Constructor<T> constructor = this.targetClass.getDeclaredConstructor();
-			final boolean        access      = constructor.canAccess(null);
-			constructor.setAccessible(true); // NOSONAR: if not accessible, this makes it accessible
-			final T instance = constructor.newInstance();
-			constructor.setAccessible(access);
+			handler.accept(state);
+			handled = System.nanoTime();
+			verifying = true;
+			verifyArguments(state);
+			thrown = false;
+		} finally {
+			final long end = System.nanoTime();
+			if (!verifying) {
+				handled = end;
+			}
+			
+			final ParseMetrics metrics = new ParseMetrics(
+				this.schema.targetClass(),
+				state.tokens(),
+				state.conversions(),
+				thrown ? 1 : state.errors() == null ? 0 : state.errors().size(),
+				handled - start,
+				state.conversionNanos(),
+				end - handled
+			);
 			
-			return instance;
-		} catch (final InstantiationException |
-		               IllegalAccessException |
-		               InvocationTargetException |
-		               NoSuchMethodException exc) {
-			throw new ConstructorNotAccessible(this.targetClass); // NOSONAR TODO: do not use RuntimeException
+			if (listener != null) {
+				listener.parsed(metrics);
+			}
+			
+			event.end();
+			if (event.shouldCommit()) {
+				event.targetClass        = metrics.targetClass();
+				event.tokens             = metrics.tokens();
+				event.conversions        = metrics.conversions();
+				event.errors             = metrics.errors();
+				event.conversionDuration = metrics.conversionNanos();
+				event.verifyDuration     = metrics.verifyNanos();
+				event.commit();
+			}
+		}
+	}
+	
+	private void handle(final ParseState<T> state, final String[] array, final Iterator<String> iterator) {
+		if (this.argumentFiles) {
+			try (ArgumentFileExpander expanded = new ArgumentFileExpander(
+				iterator != null ? iterator : Arrays.asList(array).iterator(),
+				this.recursiveArgumentFiles
+			)) {
+				handleArguments(state, expanded);
+			}
+		} else if (iterator != null) {
+			handleArguments(state, iterator);
+		} else {
+			handleArguments(state, array);
 		}
 	}
 	
-	protected void handleArguments(final String[] arguments) {
+	protected void handleArguments(final ParseState<T> state, final String[] arguments) {
 		boolean stopParsingArguments = false;
 		
+		state.read(arguments.length);
+		
 		int i = 0;
 		while (i < arguments.length) {
 			final String argument = arguments[i];
+			state.position(i);
 			
 			if ("--".equals(argument)) {
 				stopParsingArguments = true;
@@ -116,196 +436,279 @@ public class ArgumentParser<T> {
 			
 			int usedArguments;
 			
-			if (stopParsingArguments || argument.charAt(0) != '-') {
-				usedArguments = handlePositional(argument);
-			} else if (LONG_ARGUMENT_PREFIX.equals(argument.substring(0, 2))) {
-				usedArguments = handleLongArgument(arguments, i);
+			if (stopParsingArguments || argument.isEmpty() || argument.charAt(0) != '-') {
+				usedArguments = handlePositional(state, argument);
 			} else {
-				usedArguments = handleShortArgument(arguments, i);
+				usedArguments = handleRelativeArgument(state, arguments, i);
 			}
 			
 			i += usedArguments;
 		}
 	}
 	
-	protected void verifyArguments() {
-		if (!this.positionalArguments.isEmpty()) {
-			throw new NotEnoughArguments();
-		}
+	protected void handleArguments(final ParseState<T> state, final Iterator<String> arguments) {
+		// the handlers only ever read arguments[i + 1], so a window of two replaces the array
+		final String[] pair   = new String[2];
+		final String[] single = new String[1];
 		
-		for (ArgumentInfo argument : this.relativeArguments) {
-			if (!argument.hasBeenUsed()) {
-				if (!argument.optional() && argument.getArgumentType() != ArgumentType.COUNT) {
-					throw new RequiredArgumentNotUsed(argument.longName());
-				}
-				
-				switch (argument.getArgumentType()) {
-					case TRUE_IF_PRESENT -> setField(argument.field(), this.object, "false");
-					case FALSE_IF_PRESENT -> setField(argument.field(), this.object, "true");
-					case COUNT -> setField(
-						argument.field(),
-						this.object,
-						String.valueOf(this.countedArgs.get(argument))
-					);
-					default -> { /* field is already set */ }
-				}
+		boolean stopParsingArguments = false;
+		boolean hasPending           = false;
+		String  pending              = null;
+		int     read                 = 0;
+		
+		while (hasPending || arguments.hasNext()) {
+			// a pending argument is always the last one read
+			final String argument = hasPending ? pending : arguments.next();
+			if (!hasPending) {
+				state.read(1);
 			}
-		}
-	}
-	
-	protected void clearCounters() {
-		this.relativeArguments.stream()
-			.filter(argumentInfo -> argumentInfo.getArgumentType() == ArgumentType.COUNT)
-			.forEach(argumentInfo -> this.countedArgs.put(argumentInfo, 0));
-	}
-	
-	protected void registerArguments() {
-		final List<Field> argumentFields = Arrays.stream(this.targetClass.getDeclaredFields())
-			.filter(field -> field.isAnnotationPresent(Argument.class))
-			.toList();
-		
-		for (Field field : argumentFields) {
-			// only get the first @Argument, all other can be ignored
-			final Argument argumentAnnotation = field.getAnnotationsByType(Argument.class)[0];
+			state.position(hasPending ? read - 1 : read++);
+			hasPending = false;
 			
-			if (!checkForInvalidCombinations(argumentAnnotation)) {
-				throw new InvalidArgumentCombination(field);
+			if ("--".equals(argument)) {
+				stopParsingArguments = true;
+				continue;
 			}
 			
-			if (!argumentAnnotation.type().classIsAllowed(field.getType())) {
-				throw new ClassMismatchException(argumentAnnotation, field.getType());
+			if (stopParsingArguments || argument.isEmpty() || argument.charAt(0) != '-') {
+				handlePositional(state, argument);
+				continue;
 			}
 			
-			final String kebabName = NameConverter.camelToKebabCase(field.getName());
+			// only options read ahead, a positional never needs the next argument
+			if (arguments.hasNext()) {
+				pair[0] = argument;
+				pair[1] = arguments.next();
+				read += 1;
+				state.read(1);
+				
+				// the next argument was not used as a value, so it is handled on its own
+				hasPending = handleRelativeArgument(state, pair, 0) == 1;
+				pending    = pair[1];
+			} else {
+				single[0] = argument;
+				handleRelativeArgument(state, single, 0);
+			}
+		}
+	}
+	
+	// like handleArguments, but the options were already looked up by the tokenizer
+	protected void handleTokens(final ParseState<T> state, final TokenStream tokens) {
+		final String[]           arguments = tokens.sourceArguments();
+		final List<ArgumentInfo> options   = this.schema.relativeArguments();
+		
+		state.read(arguments.length);
+		
+		int t = 0;
+		while (t < tokens.size()) {
+			final int i      = tokens.argument(t);
+			final int option = tokens.option(t);
+			state.position(i);
 			
-			// String shortName = argumentAnnotation.shortName();
-			final String shortName = switch (argumentAnnotation.shortName().length()) {
-				case 0 -> null;
-				case 1 -> argumentAnnotation.shortName();
-				default -> throw new ShortNameTooLong(argumentAnnotation.shortName());
+			final int usedArguments = switch (tokens.kind(t)) {
+				case SEPARATOR -> 1;
+				// a value is only ever first if its option was not, which the tokenizer never does
+				case POSITIONAL, VALUE -> handlePositional(state, arguments[i]);
+				case LONG -> option < 0
+					? handleLongArgument(state, arguments, i)
+					: handleOption(state, options.get(option), arguments, i, inlineValue(tokens, t, i));
+				case SHORT -> option < 0
+					? handleShortArgument(state, arguments, i)
+					: handleOption(state, options.get(option), arguments, i, null);
+				case CLUSTER -> handleCombinedShortArguments(state, arguments, i);
 			};
 			
-			final ArgumentInfo argument = new ArgumentInfo(
-				field,
-				argumentAnnotation.positional(),
-				argumentAnnotation.optional(),
-				kebabName,
-				shortName,
-				argumentAnnotation.type()
-			);
-			
-			registerArgument(argument);
+			// skips the rest of the tokens of the used arguments
+			final int next = i + usedArguments;
+			while (t < tokens.size() && tokens.argument(t) < next) {
+				t++;
+			}
 		}
 	}
 	
-	protected void registerArgument(final ArgumentInfo argument) {
-		if (this.relativeArguments.stream()
-			.anyMatch(argumentInfo -> Objects.equals(argumentInfo.longName(), argument.longName()))) {
-			throw new DuplicateArgument(argument.longName());
-		}
-		if (argument.shortName() != null && this.relativeArguments.stream()
-			.anyMatch(argumentInfo -> Objects.equals(argumentInfo.shortName(), argument.shortName()))) {
-			throw new DuplicateArgument(argument.shortName());
+	// the value of --name=value is the token after the name, in the same argument
+	private static String inlineValue(final TokenStream tokens, final int t, final int i) {
+		if (t + 1 < tokens.size() && tokens.kind(t + 1) == TokenStream.Kind.VALUE && tokens.argument(t + 1) == i) {
+			return tokens.sourceArguments()[i].substring(tokens.start(t + 1));
 		}
 		
-		if (argument.positional()) {
-			this.positionalArguments.add(argument);
-		} else {
-			this.relativeArguments.add(argument);
-		}
-		
-		if (argument.getArgumentType() == ArgumentType.COUNT) {
-			this.countedArgs.put(argument, 0);
-		}
+		return null;
 	}
 	
-	protected int handleShortArgument(final String[] arguments, final int i) {
-		final String name = arguments[i].substring(1);
-		
-		// e.g. -xzf
-		if (name.length() > 1) {
-			return handleCombinedShortArguments(arguments, i);
+	protected int handleRelativeArgument(final ParseState<T> state, final String[] arguments, final int i) {
+		if (arguments[i].startsWith(LONG_ARGUMENT_PREFIX)) {
+			return handleLongArgument(state, arguments, i);
 		}
 		
-		final Optional<ArgumentInfo> argOptional = this.relativeArguments.stream()
-			.filter(argumentInfo -> Objects.equals(argumentInfo.shortName(), name))
-			.findFirst();
+		return handleShortArgument(state, arguments, i);
+	}
+	
+	protected void verifyArguments(final ParseState<T> state) {
+		state.position(-1);
 		
-		if (argOptional.isEmpty()) {
-			throw new UnknownArgument(arguments[i]);
+		if (state.positionalIndex() < this.schema.positionalArguments().size()) {
+			state.fail(ParseError.Code.NOT_ENOUGH_POSITIONALS, null, new NotEnoughArguments(state.stackTraces()));
 		}
 		
-		final ArgumentInfo argumentInfo = argOptional.get();
-		
-		if (argumentInfo.hasBeenUsed()) {
-			throw new DuplicateArgument(argumentInfo.longName());
+		for (ArgumentInfo argument : this.schema.relativeArguments()) {
+			if (argument.getArgumentType() == ArgumentType.APPEND) {
+				final Accumulator accumulator = state.accumulator(argument);
+				
+				if (accumulator != null) {
+					argument.set(state.receiver(), accumulator.toValue());
+				} else if (!argument.optional()) {
+					state.fail(
+						ParseError.Code.REQUIRED_ARGUMENT_NOT_USED,
+						argument.longName(),
+						new RequiredArgumentNotUsed(argument.longName(), state.stackTraces())
+					);
+				}
+			} else if (!state.isUsed(argument)) {
+				if (!argument.optional() && argument.getArgumentType() != ArgumentType.COUNT) {
+					state.fail(
+						ParseError.Code.REQUIRED_ARGUMENT_NOT_USED,
+						argument.longName(),
+						new RequiredArgumentNotUsed(argument.longName(), state.stackTraces())
+					);
+					continue;
+				}
+				
+				switch (argument.getArgumentType()) {
+					case TRUE_IF_PRESENT -> setField(argument, state.receiver(), "false");
+					case FALSE_IF_PRESENT -> setField(argument, state.receiver(), "true");
+					case COUNT -> argument.setCount(state.receiver(), state.count(argument));
+					default -> { /* field is already set */ }
+				}
+			}
 		}
+	}
+	
+	protected int handleShortArgument(final ParseState<T> state, final String[] arguments, final int i) {
+		final String argument = arguments[i];
 		
-		if (argumentInfo.getArgumentType() == ArgumentType.COUNT) {
-			this.countedArgs.merge(argumentInfo, 1, Integer::sum);
+		if (argument.length() < 2) {
+			state.fail(ParseError.Code.UNKNOWN_ARGUMENT, argument, new UnknownArgument(argument, state.stackTraces()));
 			return 1;
 		}
 		
-		int usedArgs = 1;
-		final String value = switch (argumentInfo.getArgumentType()) {
-			case TRUE_IF_PRESENT -> "true";
-			case FALSE_IF_PRESENT -> "false";
-			default -> {
-				if (i + 1 == arguments.length) {
-					throw new NotEnoughArguments();
-				}
-				usedArgs = 2;
-				yield arguments[i + 1];
-			}
-		};
+		// e.g. -xzf
+		if (argument.length() > 2) {
+			return handleCombinedShortArguments(state, arguments, i);
+		}
 		
-		argumentInfo.use();
-		setField(argumentInfo.field(), this.object, value);
-		return usedArgs;
+		return handleShortOption(state, argument.charAt(1), arguments, i);
 	}
 	
-	protected int handleCombinedShortArguments(final String[] arguments, final int i) {
-		final String argumentCombination = arguments[i].substring(1);
-		int          maxUsedArguments    = 0;
+	protected int handleCombinedShortArguments(final ParseState<T> state, final String[] arguments, final int i) {
+		final String argumentCombination = arguments[i];
 		
-		for (String s : argumentCombination.split("")) {
-			// instead of xzf treat it as x, then as z, then as f
-			final String[] argumentCopy = Arrays.copyOf(arguments, arguments.length);
-			argumentCopy[i] = "-" + s;
-			final int usedArgs = this.handleShortArgument(argumentCopy, i);
+		// instead of xzf treat it as x, then as z, then as f
+		for (int c = 1; c < argumentCombination.length(); c++) {
+			final char         name         = argumentCombination.charAt(c);
+			final ArgumentInfo argumentInfo = this.schema.findShortArgument(name);
 			
-			// two arguments used the same following arg
-			if (usedArgs == 2 && maxUsedArguments == 2) {
-				throw new ArgumentsOverlap();
+			// like getopt, the rest of the cluster is the value (-ovalue, -vofile), the next argument only if it's last
+			if (takesValue(argumentInfo)) {
+				return c + 1 < argumentCombination.length()
+					? handleOption(state, argumentInfo, arguments, i, argumentCombination.substring(c + 1))
+					: handleOption(state, argumentInfo, arguments, i);
 			}
 			
-			if (maxUsedArguments < usedArgs) {
-				maxUsedArguments = usedArgs;
-			}
+			this.handleShortOption(state, name, arguments, i);
 		}
 		
-		return maxUsedArguments;
+		return 1;
 	}
 	
-	protected int handleLongArgument(final String[] arguments, final int i) {
-		final String name = arguments[i].substring(2);
+	// handles the short option name at arguments[i], its value (if any) is arguments[i + 1]
+	protected int handleShortOption(final ParseState<T> state, final char name, final String[] arguments, final int i) {
+		final ArgumentInfo argumentInfo = this.schema.findShortArgument(name);
 		
-		final Optional<ArgumentInfo> argOptional = this.relativeArguments.stream()
-			.filter(argumentInfo -> Objects.equals(argumentInfo.longName(), name))
-			.findFirst();
+		if (argumentInfo == null) {
+			final String argument = "-" + name;
+			state.fail(ParseError.Code.UNKNOWN_ARGUMENT, argument, new UnknownArgument(argument, state.stackTraces()));
+			return 1;
+		}
 		
-		if (argOptional.isEmpty()) {
-			throw new UnknownArgument(arguments[i]);
+		return handleOption(state, argumentInfo, arguments, i);
+	}
+	
+	protected int handleLongArgument(final ParseState<T> state, final String[] arguments, final int i) {
+		final String argument = arguments[i];
+		// e.g. --name=value, the name ends before the '='
+		final int    equals   = argument.indexOf('=', 2);
+		final int    end      = equals < 0 ? argument.length() : equals;
+		ArgumentInfo argumentInfo = this.schema.findLongArgument(argument, 2, end);
+		
+		if (argumentInfo == null && this.abbreviations) {
+			final OptionTrie trie = this.schema.trie();
+			argumentInfo = trie.find(argument, 2, end);
+			
+			if (argumentInfo == null) {
+				final List<String> candidates = trie.candidates(argument, 2, end);
+				
+				if (candidates.size() > 1) {
+					final String name = argument.substring(0, end);
+					state.fail(
+						ParseError.Code.AMBIGUOUS_ARGUMENT,
+						argument,
+						new AmbiguousArgument(name, prefixed(candidates), state.stackTraces())
+					);
+					return 1;
+				}
+			}
 		}
 		
-		final ArgumentInfo argumentInfo = argOptional.get();
+		if (argumentInfo == null) {
+			final String       name        = argument.substring(0, end);
+			final List<String> suggestions = this.suggestions ? suggest(name.substring(2)) : List.of();
+			state.fail(ParseError.Code.UNKNOWN_ARGUMENT, argument, new UnknownArgument(name, suggestions, state.stackTraces()));
+			return 1;
+		}
 		
-		if (argumentInfo.hasBeenUsed()) {
-			throw new DuplicateArgument(argumentInfo.longName());
+		// the value is the only string taken out of the argument
+		return handleOption(state, argumentInfo, arguments, i, equals < 0 ? null : argument.substring(equals + 1));
+	}
+	
+	// short names allow fewer typos, so they don't come up with nonsense
+	private List<String> suggest(final String name) {
+		final int maxDistance = name.length() <= 3 ? 1 : 2;
+		
+		return prefixed(this.schema.trie().similar(name, maxDistance, 3));
+	}
+	
+	private static List<String> prefixed(final List<String> names) {
+		return names.stream().map(name -> LONG_ARGUMENT_PREFIX + name).toList();
+	}
+	
+	// handles the option given at arguments[i], its value (if any) is arguments[i + 1]
+	protected int handleOption(final ParseState<T> state, final ArgumentInfo argumentInfo, final String[] arguments,
+		final int i) {
+		return handleOption(state, argumentInfo, arguments, i, null);
+	}
+	
+	// an inline value was attached to the option (--name=value, -ovalue), so the next argument is left alone
+	protected int handleOption(final ParseState<T> state, final ArgumentInfo argumentInfo, final String[] arguments,
+		final int i, final String inlineValue) {
+		if (state.isUsed(argumentInfo)) {
+			state.fail(
+				ParseError.Code.DUPLICATE_ARGUMENT,
+				arguments[i],
+				new DuplicateArgument(argumentInfo.longName(), state.stackTraces())
+			);
+		}
+		
+		if (inlineValue != null && !takesValue(argumentInfo)) {
+			state.fail(
+				ParseError.Code.UNEXPECTED_VALUE,
+				arguments[i],
+				new UnexpectedValue(argumentInfo.longName(), state.stackTraces())
+			);
+			return 1;
 		}
 		
 		if (argumentInfo.getArgumentType() == ArgumentType.COUNT) {
-			this.countedArgs.merge(argumentInfo, 1, Integer::sum);
+			state.increment(argumentInfo);
 			return 1;
 		}
 		
@@ -314,49 +717,162 @@ public class ArgumentParser<T> {
 			case TRUE_IF_PRESENT -> "true";
 			case FALSE_IF_PRESENT -> "false";
 			default -> {
+				if (inlineValue != null) {
+					yield inlineValue;
+				}
 				if (i + 1 == arguments.length) {
-					throw new NotEnoughArguments();
+					state.fail(ParseError.Code.MISSING_VALUE, arguments[i], new NotEnoughArguments(state.stackTraces()));
+					yield null;
 				}
 				usedArgs = 2;
 				yield arguments[i + 1];
 			}
 		};
 		
-		argumentInfo.use();
-		setField(argumentInfo.field(), this.object, value);
+		// the missing value has been reported already
+		if (value == null) {
+			return usedArgs;
+		}
+		
+		if (argumentInfo.getArgumentType() != ArgumentType.APPEND) {
+			state.use(argumentInfo);
+		}
+		
+		write(state, argumentInfo, value);
 		return usedArgs;
 	}
 	
-	protected int handlePositional(final String argument) {
-		if (this.positionalArguments.isEmpty()) {
-			throw new TooManyPositionals();
+	private static boolean takesValue(final ArgumentInfo argumentInfo) {
+		return argumentInfo != null && switch (argumentInfo.getArgumentType()) {
+			case DEFAULT, APPEND -> true;
+			default -> false;
+		};
+	}
+	
+	protected int handlePositional(final ParseState<T> state, final String argument) {
+		if (state.positionalIndex() == this.schema.positionalArguments().size()) {
+			if (state.rest() == null) {
+				state.fail(ParseError.Code.TOO_MANY_POSITIONALS, argument, new TooManyPositionals(state.stackTraces()));
+			} else {
+				state.rest().accept(argument);
+			}
+			
+			return 1;
 		}
 		
-		final ArgumentInfo argumentInfo = this.positionalArguments.removeFirst();
+		final ArgumentInfo argumentInfo = this.schema.positionalArguments().get(state.nextPositional());
 		
-		setField(argumentInfo.field(), this.object, argument);
+		write(state, argumentInfo, argument);
 		
 		return 1;
 	}
 	
-	protected void setField(final Field field, final Object object, final String value) {
+	private void write(final ParseState<T> state, final ArgumentInfo argument, final String value) {
+		if (!state.measured()) {
+			convert(state, argument, value);
+			return;
+		}
+		
+		final ConversionEvent event = new ConversionEvent();
+		event.begin();
+		
+		final long start  = System.nanoTime();
+		boolean    failed = true;
+		
+		try {
+			failed = !convert(state, argument, value);
+		} finally {
+			final long     nanos = System.nanoTime() - start;
+			// the type of the converted value, not the array or list of an APPEND argument
+			final Class<?> type  = argument.elementType() != null ? argument.elementType() : argument.field().getType();
+			
+			state.converted(nanos);
+			
+			final ParseListener listener = this.parseListener;
+			if (listener != null) {
+				listener.converted(type, nanos, failed);
+			}
+			
+			event.end();
+			if (event.shouldCommit()) {
+				event.type   = type;
+				event.failed = failed;
+				event.commit();
+			}
+		}
+	}
+	
+	// if the errors are collected, a value that cannot be converted is reported instead of thrown
+	// false if the value was not converted
+	private boolean convert(final ParseState<T> state, final ArgumentInfo argument, final String value) {
 		try {
-			final boolean access = field.canAccess(object);
-			field.setAccessible(true); // NOSONAR: if not accessible, this makes it accessible
-			field.set(object, this.convertType(value, field.getType())); // NOSONAR: see above
-			field.setAccessible(access);
-		} catch (IllegalAccessException exc) {
-			throw new IllegalStateException(exc);
+			if (argument.getArgumentType() == ArgumentType.APPEND) {
+				append(state, argument, value);
+			} else if (argument.lazy()) {
+				argument.set(state.receiver(), lazy(argument.elementType(), value, state.position()));
+			} else {
+				setField(argument, state.receiver(), value);
+			}
+			return true;
+		} catch (final RuntimeException exc) {
+			state.fail(ParseError.Code.INVALID_VALUE, value, exc);
+			return false;
+		}
+	}
+	
+	// APPEND arguments collect their values, the field is only set once all arguments are handled
+	protected void append(final ParseState<T> state, final ArgumentInfo argument, final String value) {
+		final Class<?> type = argument.field().getType();
+		
+		if (type == int[].class) {
+			state.accumulator(argument, Accumulator.Ints::new).add(this.primitiveConverters.toInt(value));
+		} else if (type == long[].class) {
+			state.accumulator(argument, Accumulator.Longs::new).add(this.primitiveConverters.toLong(value));
+		} else if (type == double[].class) {
+			state.accumulator(argument, Accumulator.Doubles::new).add(this.primitiveConverters.toDouble(value));
+		} else if (type == String[].class) {
+			state.accumulator(argument, Accumulator.Strings::new).add((String) this.convertType(value, String.class));
+		} else {
+			state.accumulator(argument, Accumulator.Elements::new).add(this.convertType(value, argument.elementType()));
+		}
+	}
+	
+	protected void setField(final ArgumentInfo argument, final Object object, final String value) {
+		final Class<?> type = argument.field().getType();
+		
+		if (type.isPrimitive()) {
+			this.primitiveConverters.write(argument, object, type, value);
+		} else {
+			argument.set(object, this.convertType(value, type));
 		}
 	}
 	
+	// converted through this parser's converters once the value is first read
+	private Lazy<Object> lazy(final Class<?> target, final String value, final int position) {
+		return new Lazy<>(value, position, token -> this.convertType(token, target));
+	}
+	
 	protected Object convertType(final String value, final Class<?> target) {
-		final Function<String, ?> conversionFunction = this.conversionFunctions.get(target);
+		if (target.isPrimitive()) {
+			return this.primitiveConverters.convert(value, target);
+		}
+		
+		Function<String, ?> conversionFunction = this.conversionFunctions.get(target);
+		if (conversionFunction == null) {
+			conversionFunction = DEFAULT_CONVERSION_FUNCTIONS.get(target);
+		}
 		
 		if (conversionFunction == null) {
 			throw new ImpossibleConversion(value, target);
 		}
 		
+		if (!this.conversionCaches.isEmpty()) {
+			final ConversionCache cache = this.conversionCaches.get(target);
+			if (cache != null) {
+				return cache.get(value, conversionFunction);
+			}
+		}
+		
 		return conversionFunction.apply(value);
 	}
 }
@@ -0,0 +1,358 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.exceptions.*;
+
+import java.lang.invoke.*;
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+public final class ArgumentSchema<T> {
+	// reflection only happens once per class, every parser afterwards reuses the compiled schema
+	private static final ClassValue<ArgumentSchema<?>> SCHEMAS = new ClassValue<>() {
+		@Override
+		protected ArgumentSchema<?> computeValue(final Class<?> type) {
+			return new ArgumentSchema<>(type);
+		}
+	};
+	
+	// the widths of the help come from the caller, so only the first few of them are kept
+	private static final int MAX_HELP_WIDTHS = 8;
+	
+	private final Class<T>           targetClass;
+	private final Constructor<T>     constructor;
+	// null if the target is created empty and its fields are set afterwards
+	// otherwise (Object[])Object, spreading the collected values into the record's canonical or the @Argument constructor
+	private final MethodHandle       creator;
+	private final Object[]           defaultValues;
+	private final List<ArgumentInfo> relativeArguments;
+	private final List<ArgumentInfo> positionalArguments;
+	private final OptionIndex        optionIndex;
+	// the kebab case name of the class, e.g. ServerOptions -> server-options
+	private final String             programName;
+	
+	// only built once abbreviations, suggestions or completions are used
+	// they are immutable, so a race at worst builds them twice
+	private volatile OptionTrie      trie;
+	private volatile CompletionTable completionTable;
+	
+	// the help of the schema's own program name in the terminal charset, encoded once per width
+	private final Map<Integer, byte[]> help = new ConcurrentHashMap<>();
+	
+	private ArgumentSchema(final Class<T> targetClass) {
+		final SchemaEvent event = new SchemaEvent();
+		event.begin();
+		
+		if (targetClass.isInterface() || targetClass.isPrimitive() || targetClass.isArray() || Void.class.equals(
+			targetClass)) {
+			throw new IncompatibleClass(targetClass);
+		}
+		
+		this.targetClass = targetClass;
+		this.constructor = resolveConstructor(targetClass);
+		
+		final Class<?>[] parameterTypes = this.constructor.getParameterTypes();
+		this.creator       = parameterTypes.length == 0 ? null : createCreator(this.constructor);
+		this.defaultValues = new Object[parameterTypes.length];
+		for (int i = 0; i < parameterTypes.length; i++) {
+			// primitives can't be null, their default is the value of a new array's element
+			this.defaultValues[i] = parameterTypes[i].isPrimitive()
+				? Array.get(Array.newInstance(parameterTypes[i], 1), 0)
+				: null;
+		}
+		
+		final List<ArgumentInfo> relative   = new ArrayList<>();
+		final List<ArgumentInfo> positional = new ArrayList<>();
+		registerArguments(relative, positional);
+		
+		this.relativeArguments   = List.copyOf(relative);
+		this.positionalArguments = List.copyOf(positional);
+		this.optionIndex         = new OptionIndex(this.relativeArguments);
+		
+		final String kebabName = NameConverter.camelToKebabCase(targetClass.getSimpleName());
+		this.programName = kebabName.startsWith("-") ? kebabName.substring(1) : kebabName;
+		
+		event.end();
+		if (event.shouldCommit()) {
+			event.targetClass = targetClass;
+			event.arguments   = this.relativeArguments.size() + this.positionalArguments.size();
+			event.commit();
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	public static <T> ArgumentSchema<T> of(final Class<T> targetClass) {
+		return (ArgumentSchema<T>) SCHEMAS.get(targetClass);
+	}
+	
+	// bypasses the cache, so the benchmarks can measure compiling a schema
+	static <T> ArgumentSchema<T> compile(final Class<T> targetClass) {
+		return new ArgumentSchema<>(targetClass);
+	}
+	
+	public static boolean checkForInvalidCombinations(final Argument argument) {
+		if (argument.type() == ArgumentType.COUNT && argument.positional()) {
+			return false;
+		}
+		
+		if (argument.positional() && argument.optional()) {
+			return false;
+		}
+		
+		if ((argument.type() == ArgumentType.TRUE_IF_PRESENT || argument.type() == ArgumentType.FALSE_IF_PRESENT) && argument.positional()) {
+			return false;
+		}
+		
+		if (argument.type() == ArgumentType.APPEND && argument.positional()) {
+			return false;
+		}
+		
+		return true;
+	}
+	
+	// a record's canonical constructor, the @Argument constructor or the no-arg constructor
+	@SuppressWarnings("unchecked")
+	private static <T> Constructor<T> resolveConstructor(final Class<T> targetClass) {
+		final List<Constructor<?>> annotated = Arrays.stream(targetClass.getDeclaredConstructors())
+			.filter(constructor -> constructor.isAnnotationPresent(Argument.class))
+			.toList();
+		
+		if (annotated.size() > 1) {
+			throw new InvalidArgumentConstructor(targetClass);
+		}
+		
+		try {
+			// getDeclaredConstructor returns a private copy, so it can stay accessible
+			final Constructor<T> constructor;
+			if (targetClass.isRecord()) {
+				constructor = targetClass.getDeclaredConstructor(Arrays.stream(targetClass.getRecordComponents())
+					.map(RecordComponent::getType)
+					.toArray(Class<?>[]::new));
+			} else if (!annotated.isEmpty()) {
+				constructor = (Constructor<T>) annotated.get(0);
+			} else {
+				constructor = targetClass.getDeclaredConstructor();
+			}
+			
+			constructor.setAccessible(true); // NOSONAR: if not accessible, this makes it accessible
+			return constructor;
+		} catch (final NoSuchMethodException | RuntimeException exc) {
+			throw new ConstructorNotAccessible(targetClass); // NOSONAR
+		}
+	}
+	
+	private static MethodHandle createCreator(final Constructor<?> constructor) {
+		try {
+			return MethodHandles.lookup()
+				.unreflectConstructor(constructor)
+				.asSpreader(Object[].class, constructor.getParameterCount())
+				.asType(MethodType.methodType(Object.class, Object[].class));
+		} catch (final IllegalAccessException exc) {
+			throw new ConstructorNotAccessible(constructor.getDeclaringClass()); // NOSONAR
+		}
+	}
+	
+	public Class<T> targetClass() {
+		return this.targetClass;
+	}
+	
+	String programName() {
+		return this.programName;
+	}
+	
+	public List<ArgumentInfo> relativeArguments() {
+		return this.relativeArguments;
+	}
+	
+	public List<ArgumentInfo> positionalArguments() {
+		return this.positionalArguments;
+	}
+	
+	ArgumentInfo findShortArgument(final char shortName) {
+		return this.optionIndex.findShort(shortName);
+	}
+	
+	ArgumentInfo findLongArgument(final String argument, final int from, final int to) {
+		return this.optionIndex.findLong(argument, from, to);
+	}
+	
+	OptionTrie trie() {
+		OptionTrie trie = this.trie;
+		if (trie == null) {
+			trie      = new OptionTrie(this.relativeArguments);
+			this.trie = trie;
+		}
+		
+		return trie;
+	}
+	
+	// the returned array may be shared, it must only be written out
+	byte[] help(final int width) {
+		final byte[] cached = this.help.get(width);
+		if (cached != null) {
+			return cached;
+		}
+		
+		final byte[] bytes = HelpFormatter.render(this, this.programName, width).getBytes(HelpFormatter.terminalCharset());
+		
+		// a race can keep a few more, but never an unbounded number of widths
+		if (this.help.size() < MAX_HELP_WIDTHS) {
+			final byte[] previous = this.help.putIfAbsent(width, bytes);
+			return previous != null ? previous : bytes;
+		}
+		
+		return bytes;
+	}
+	
+	CompletionTable completionTable() {
+		CompletionTable table = this.completionTable;
+		if (table == null) {
+			table                = new CompletionTable(this.relativeArguments, this.positionalArguments);
+			this.completionTable = table;
+		}
+		
+		return table;
+	}
+	
+	// true if the values are collected and passed to a constructor once all arguments are handled
+	boolean constructed() {
+		return this.creator != null;
+	}
+	
+	T newInstance() {
+		try {
+			return this.constructor.newInstance();
+		} catch (final InstantiationException | IllegalAccessException | InvocationTargetException exc) {
+			throw new ConstructorNotAccessible(this.targetClass); // NOSONAR
+		}
+	}
+	
+	// one slot per constructor parameter, filled with the defaults of their types
+	Object[] newValues() {
+		return this.defaultValues.clone();
+	}
+	
+	@SuppressWarnings("unchecked")
+	T construct(final Object[] values) {
+		try {
+			return (T) this.creator.invokeExact(values);
+		} catch (final RuntimeException | Error exc) {
+			throw exc;
+		} catch (final Throwable throwable) {
+			throw new IllegalStateException(throwable);
+		}
+	}
+	
+	private void registerArguments(final List<ArgumentInfo> relative, final List<ArgumentInfo> positional) {
+		final List<Field> argumentFields = Arrays.stream(this.targetClass.getDeclaredFields())
+			.filter(field -> field.isAnnotationPresent(Argument.class))
+			.toList();
+		
+		// the parameter of the constructor each field's value is passed to, by name
+		final Map<String, Integer> parameters = this.creator == null ? null
+			: this.targetClass.isRecord() ? componentIndexes(this.targetClass) : parameterIndexes(this.constructor);
+		int boundParameters = 0;
+		
+		// every name is checked against all names registered before it, without comparing it to each of them
+		final Set<String> longNames  = HashSet.newHashSet(argumentFields.size());
+		final Set<String> shortNames = HashSet.newHashSet(argumentFields.size());
+		
+		for (Field field : argumentFields) {
+			// only get the first @Argument, all other can be ignored
+			final Argument argumentAnnotation = field.getAnnotationsByType(Argument.class)[0];
+			
+			if (!checkForInvalidCombinations(argumentAnnotation)) {
+				throw new InvalidArgumentCombination(field);
+			}
+			
+			if (!argumentAnnotation.type().classIsAllowed(field.getType())) {
+				throw new ClassMismatchException(argumentAnnotation, field.getType());
+			}
+			
+			// the field is a private copy, making it accessible lets ArgumentInfo build its setter handle
+			field.setAccessible(true); // NOSONAR
+			
+			final String kebabName = NameConverter.camelToKebabCase(field.getName());
+			
+			final String shortName = switch (argumentAnnotation.shortName().length()) {
+				case 0 -> null;
+				case 1 -> argumentAnnotation.shortName();
+				default -> throw new ShortNameTooLong(argumentAnnotation.shortName());
+			};
+			
+			int parameter = -1;
+			if (this.creator != null && !Modifier.isStatic(field.getModifiers())) {
+				final Integer index = parameters.get(field.getName());
+				
+				if (index == null || this.constructor.getParameterTypes()[index] != field.getType()) {
+					throw new InvalidArgumentConstructor(this.targetClass);
+				}
+				
+				parameter = index;
+				boundParameters++;
+			}
+			
+			final ArgumentInfo argument = new ArgumentInfo(
+				argumentAnnotation.positional() ? positional.size() : relative.size(),
+				field,
+				parameter,
+				argumentAnnotation.positional(),
+				argumentAnnotation.optional(),
+				kebabName,
+				shortName,
+				argumentAnnotation.type()
+			);
+			
+			registerArgument(argument, relative, positional, longNames, shortNames);
+		}
+		
+		// every parameter of an @Argument constructor needs a field
+		if (this.creator != null && !this.targetClass.isRecord() && boundParameters != this.constructor.getParameterCount()) {
+			throw new InvalidArgumentConstructor(this.targetClass);
+		}
+	}
+	
+	private static Map<String, Integer> componentIndexes(final Class<?> record) {
+		final RecordComponent[]    components = record.getRecordComponents();
+		final Map<String, Integer> indexes    = HashMap.newHashMap(components.length);
+		
+		for (int i = 0; i < components.length; i++) {
+			indexes.put(components[i].getName(), i);
+		}
+		
+		return indexes;
+	}
+	
+	// the names are only in the class file if it was compiled with -parameters
+	private static Map<String, Integer> parameterIndexes(final Constructor<?> constructor) {
+		final Parameter[]          parameters = constructor.getParameters();
+		final Map<String, Integer> indexes    = HashMap.newHashMap(parameters.length);
+		
+		for (int i = 0; i < parameters.length; i++) {
+			if (!parameters[i].isNamePresent()) {
+				throw new InvalidArgumentConstructor(constructor.getDeclaringClass());
+			}
+			
+			indexes.put(parameters[i].getName(), i);
+		}
+		
+		return indexes;
+	}
+	
+	// names are unique among all arguments, positional or not
+	private static void registerArgument(final ArgumentInfo argument, final List<ArgumentInfo> relative,
+		final List<ArgumentInfo> positional, final Set<String> longNames, final Set<String> shortNames) {
+		if (!longNames.add(argument.longName())) {
+			throw new DuplicateArgument(argument.longName());
+		}
+		if (argument.shortName() != null && !shortNames.add(argument.shortName())) {
+			throw new DuplicateArgument(argument.shortName());
+		}
+		
+		if (argument.positional()) {
+			positional.add(argument);
+		} else {
+			relative.add(argument);
+		}
+	}
+}
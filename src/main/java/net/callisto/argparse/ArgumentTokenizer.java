@@ -0,0 +1,102 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.exceptions.*;
+
+import java.io.*;
+import java.util.*;
+
+// splits characters into arguments like a shell would: on whitespace, unless quoted or escaped
+// only the current token is kept in memory, so the reader may be arbitrarily long
+final class ArgumentTokenizer implements Iterator<String> {
+	private static final int BUFFER_SIZE = 8192;
+	
+	private final Reader        reader;
+	private final char[]        buffer = new char[BUFFER_SIZE];
+	private final StringBuilder token  = new StringBuilder();
+	private       int           position;
+	private       int           limit;
+	private       String        next;
+	private       boolean       exhausted;
+	
+	ArgumentTokenizer(final Reader reader) {
+		this.reader = reader;
+	}
+	
+	@Override
+	public boolean hasNext() {
+		if (this.next == null && !this.exhausted) {
+			this.next      = readToken();
+			this.exhausted = this.next == null;
+		}
+		
+		return this.next != null;
+	}
+	
+	@Override
+	public String next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		
+		final String result = this.next;
+		this.next = null;
+		return result;
+	}
+	
+	private String readToken() {
+		int c = read();
+		while (c != -1 && Character.isWhitespace(c)) {
+			c = read();
+		}
+		
+		if (c == -1) {
+			return null;
+		}
+		
+		this.token.setLength(0);
+		int quote = 0;
+		
+		while (c != -1 && (quote != 0 || !Character.isWhitespace(c))) {
+			if (quote == 0 && (c == '"' || c == '\'')) {
+				quote = c;
+			} else if (c == quote) {
+				quote = 0;
+			} else if (c == '\\' && quote != '\'') {
+				// nothing is escaped inside single quotes
+				c = read();
+				if (c == -1) {
+					break;
+				}
+				this.token.append((char) c);
+			} else {
+				this.token.append((char) c);
+			}
+			
+			c = read();
+		}
+		
+		if (quote != 0) {
+			throw new UnterminatedQuote(this.token.toString());
+		}
+		
+		return this.token.toString();
+	}
+	
+	private int read() {
+		if (this.position == this.limit) {
+			try {
+				this.limit = this.reader.read(this.buffer);
+			} catch (final IOException exc) {
+				throw new UncheckedIOException(exc);
+			}
+			
+			this.position = 0;
+			if (this.limit <= 0) {
+				this.limit = 0;
+				return -1;
+			}
+		}
+		
+		return this.buffer[this.position++];
+	}
+}
@@ -17,7 +17,8 @@ public enum ArgumentType {
 		double.class
 	),
 	TRUE_IF_PRESENT(Boolean.class, boolean.class),
-	FALSE_IF_PRESENT(Boolean.class, boolean.class);
+	FALSE_IF_PRESENT(Boolean.class, boolean.class),
+	APPEND(int[].class, long[].class, double[].class, String[].class, List.class);
 	
 	private final List<Class<?>> allowedClasses = new ArrayList<>();
 	
@@ -0,0 +1,9 @@
+package net.callisto.argparse;
+
+// the outcome of one line of a batch, index is the position of the line in the input, starting at 0
+// exactly one of value and error is set
+public record BatchResult<T>(long index, T value, RuntimeException error) {
+	public boolean success() {
+		return this.error == null;
+	}
+}
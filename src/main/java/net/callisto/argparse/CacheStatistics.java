@@ -0,0 +1,8 @@
+package net.callisto.argparse;
+
+public record CacheStatistics(long hits, long misses, long evictions, int size) {
+	public double hitRate() {
+		final long requests = this.hits + this.misses;
+		return requests == 0 ? 0 : (double) this.hits / requests;
+	}
+}
@@ -0,0 +1,76 @@
+package net.callisto.argparse;
+
+import java.util.*;
+
+// answers what may follow a partial command line
+// the words are only tokenized, nothing is converted or verified, so invalid command lines are completed as well
+public final class Completer {
+	private final ArgumentSchema<?> schema;
+	private final CompletionTable   table;
+	
+	public Completer(final Class<?> targetClass) {
+		this(ArgumentSchema.of(targetClass));
+	}
+	
+	public Completer(final ArgumentSchema<?> schema) {
+		this.schema = schema;
+		this.table  = schema.completionTable();
+	}
+	
+	// the last word is the one being completed, it is empty if the cursor is after a space
+	// words don't include the program name
+	public Completion complete(final String... words) {
+		final String      partial = words.length == 0 ? "" : words[words.length - 1];
+		final TokenStream tokens  = TokenStream.tokenize(this.schema, Arrays.copyOf(words, Math.max(words.length - 1, 0)), false);
+		
+		final boolean[] used        = new boolean[this.table.options()];
+		boolean         separated   = false;
+		int             positionals = 0;
+		// the option that takes the word being completed as its value, -1 if there is none
+		int             awaiting    = -1;
+		
+		for (int t = 0; t < tokens.size(); t++) {
+			final int option = tokens.option(t);
+			
+			switch (tokens.kind(t)) {
+				case LONG, SHORT -> {
+					if (option >= 0) {
+						used[option] = true;
+						
+						// an option taking a value ends its cluster, so it gets the next word unless the rest was its value
+						if (awaiting < 0 && this.table.value(option) != CompletionTable.Value.NONE) {
+							awaiting = option;
+						}
+					}
+				}
+				case VALUE -> awaiting = -1;
+				case POSITIONAL -> positionals++;
+				case SEPARATOR -> separated = true;
+				case CLUSTER -> { /* its options follow as SHORT tokens */ }
+			}
+		}
+		
+		if (awaiting >= 0) {
+			return files(this.table.value(awaiting));
+		}
+		
+		final CompletionTable.Value positional = this.table.positional(positionals);
+		
+		if (separated || !partial.isEmpty() && partial.charAt(0) != '-') {
+			return files(positional);
+		}
+		
+		// e.g. --output=/tm
+		final int equals = partial.indexOf('=');
+		if (partial.startsWith(ArgumentParser.LONG_ARGUMENT_PREFIX) && equals >= 0) {
+			final ArgumentInfo option = this.schema.findLongArgument(partial, 2, equals);
+			return option == null ? Completion.NONE : files(this.table.value(option.index()));
+		}
+		
+		return new Completion(this.table.names(partial, used), partial.isEmpty() && positional == CompletionTable.Value.FILE);
+	}
+	
+	private static Completion files(final CompletionTable.Value value) {
+		return value == CompletionTable.Value.FILE ? Completion.FILES : Completion.NONE;
+	}
+}
@@ -0,0 +1,10 @@
+package net.callisto.argparse;
+
+import java.util.*;
+
+// the words that may replace the one being completed
+// if files is true, a file name may follow as well, which the shell has to complete itself
+public record Completion(List<String> candidates, boolean files) {
+	static final Completion NONE  = new Completion(List.of(), false);
+	static final Completion FILES = new Completion(List.of(), true);
+}
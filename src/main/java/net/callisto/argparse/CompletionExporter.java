@@ -0,0 +1,209 @@
+package net.callisto.argparse;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+
+// writes the options of a schema as a table and bash, zsh and fish scripts completing from it
+// the shells only read the table, so completing never starts a JVM
+// every line of the table is: kind, name, short name (- if there is none), value (flag, value or file), once or repeat
+public final class CompletionExporter {
+	private static final String BASH = """
+		# bash completion for @PROGRAM@, generated by JavArgparse
+		_@FUNCTION@_complete() {
+			local table=@TABLE@
+			[[ -n "$@VARIABLE@" ]] && table="$@VARIABLE@"
+
+			local cur="${COMP_WORDS[COMP_CWORD]}" prev=""
+			(( COMP_CWORD > 1 )) && prev="${COMP_WORDS[COMP_CWORD - 1]}"
+
+			local kind name short value repeat options="" valueOptions=" " prevValue="" positionals=()
+			while IFS=$'\\t' read -r kind name short value repeat; do
+				if [[ "$kind" == option ]]; then
+					options+=" $name"
+					[[ "$short" != - ]] && options+=" $short"
+					if [[ "$value" != flag ]]; then
+						valueOptions+="$name $short "
+						[[ "$prev" == "$name" || "$prev" == "$short" ]] && prevValue="$value"
+					fi
+				elif [[ "$kind" == positional ]]; then
+					positionals+=("$value")
+				fi
+			done < "$table"
+
+			if [[ -n "$prevValue" ]]; then
+				[[ "$prevValue" == file ]] && COMPREPLY=($(compgen -f -- "$cur")) || COMPREPLY=()
+				return
+			fi
+
+			if [[ "$cur" == -* ]]; then
+				COMPREPLY=($(compgen -W "$options" -- "$cur"))
+				return
+			fi
+
+			# the words before the current one that are neither options nor their values
+			local i count=0 skip=0
+			for (( i = 1; i < COMP_CWORD; i++ )); do
+				if (( skip )); then
+					skip=0
+				elif [[ "${COMP_WORDS[i]}" == -* ]]; then
+					[[ "$valueOptions" == *" ${COMP_WORDS[i]} "* ]] && skip=1
+				else
+					(( count++ ))
+				fi
+			done
+
+			[[ "${positionals[count]}" == file ]] && COMPREPLY=($(compgen -f -- "$cur")) || COMPREPLY=()
+		}
+		complete -o filenames -F _@FUNCTION@_complete @PROGRAM@
+		""";
+	
+	private static final String ZSH = """
+		#compdef @PROGRAM@
+		# zsh completion for @PROGRAM@, generated by JavArgparse
+		local table=@TABLE@
+		[[ -n "$@VARIABLE@" ]] && table="$@VARIABLE@"
+
+		local -a specs
+		local kind name short value repeat action prefix
+		while IFS=$'\\t' read -r kind name short value repeat; do
+			case $value in
+				file) action=':file:_files' ;;
+				value) action=':value: ' ;;
+				*) action='' ;;
+			esac
+			prefix=''
+			[[ $repeat == repeat ]] && prefix='*'
+
+			if [[ $kind == option ]]; then
+				specs+=("$prefix$name$action")
+				[[ $short != - ]] && specs+=("$prefix$short$action")
+			elif [[ $kind == positional ]]; then
+				specs+=("$action")
+			fi
+		done < "$table"
+
+		_arguments -s $specs
+		""";
+	
+	private static final String FISH = """
+		# fish completion for @PROGRAM@, generated by JavArgparse
+		set -l table @FISH_TABLE@
+		set -q @VARIABLE@; and set table $@VARIABLE@
+
+		set -l files 0
+		for line in (string match -v '#*' < $table)
+			set -l fields (string split \\t -- $line)
+			switch $fields[1]
+				case option
+					set -l arguments -c @PROGRAM@ -l (string sub -s 3 -- $fields[2])
+					test $fields[3] != -; and set -a arguments -s (string sub -s 2 -- $fields[3])
+					switch $fields[4]
+						case file
+							set -a arguments -r -F
+						case value
+							set -a arguments -x
+					end
+					complete $arguments
+				case positional
+					test $fields[4] = file; and set files 1
+			end
+		end
+
+		# no positional takes a file, so words without a dash aren't completed as files either
+		test $files = 0; and complete -c @PROGRAM@ -f
+		""";
+	
+	private final ArgumentSchema<?> schema;
+	private final String            programName;
+	
+	public CompletionExporter(final ArgumentSchema<?> schema, final String programName) {
+		this.schema      = schema;
+		this.programName = programName;
+	}
+	
+	public void writeTable(final Appendable out) throws IOException {
+		out.append("# completion table for ").append(this.programName).append(", generated by JavArgparse\n");
+		
+		for (ArgumentInfo argument : this.schema.relativeArguments()) {
+			final boolean repeatable = argument.getArgumentType() == ArgumentType.COUNT
+				|| argument.getArgumentType() == ArgumentType.APPEND;
+			
+			row(
+				out,
+				"option",
+				ArgumentParser.LONG_ARGUMENT_PREFIX + argument.longName(),
+				argument.shortName() == null ? "-" : "-" + argument.shortName(),
+				value(argument),
+				repeatable ? "repeat" : "once"
+			);
+		}
+		
+		for (ArgumentInfo argument : this.schema.positionalArguments()) {
+			row(out, "positional", argument.longName(), "-", value(argument), "once");
+		}
+	}
+	
+	// the scripts read the table from the given path, or from $PROGRAM_COMPLETION_TABLE if that is set
+	public void writeBash(final Appendable out, final Path table) throws IOException {
+		out.append(fill(BASH, table));
+	}
+	
+	public void writeZsh(final Appendable out, final Path table) throws IOException {
+		out.append(fill(ZSH, table));
+	}
+	
+	public void writeFish(final Appendable out, final Path table) throws IOException {
+		out.append(fill(FISH, table));
+	}
+	
+	// writes program.completion, program.bash, _program (zsh) and program.fish into the directory
+	// the scripts read the table where it was written
+	public List<Path> export(final Path directory) throws IOException {
+		Files.createDirectories(directory);
+		
+		final Path table = directory.resolve(this.programName + ".completion").toAbsolutePath();
+		final Path bash  = directory.resolve(this.programName + ".bash");
+		final Path zsh   = directory.resolve("_" + this.programName);
+		final Path fish  = directory.resolve(this.programName + ".fish");
+		
+		try (Writer writer = Files.newBufferedWriter(table, StandardCharsets.UTF_8)) {
+			writeTable(writer);
+		}
+		try (Writer writer = Files.newBufferedWriter(bash, StandardCharsets.UTF_8)) {
+			writeBash(writer, table);
+		}
+		try (Writer writer = Files.newBufferedWriter(zsh, StandardCharsets.UTF_8)) {
+			writeZsh(writer, table);
+		}
+		try (Writer writer = Files.newBufferedWriter(fish, StandardCharsets.UTF_8)) {
+			writeFish(writer, table);
+		}
+		
+		return List.of(table, bash, zsh, fish);
+	}
+	
+	private static void row(final Appendable out, final String... columns) throws IOException {
+		out.append(String.join("\t", columns)).append('\n');
+	}
+	
+	private static String value(final ArgumentInfo argument) {
+		return switch (CompletionTable.value(argument)) {
+			case NONE -> "flag";
+			case TEXT -> "value";
+			case FILE -> "file";
+		};
+	}
+	
+	private String fill(final String script, final Path table) {
+		final String identifier = this.programName.replaceAll("[^A-Za-z0-9_]", "_");
+		
+		return script
+			.replace("@PROGRAM@", this.programName)
+			.replace("@FUNCTION@", identifier)
+			.replace("@VARIABLE@", identifier.toUpperCase(Locale.ROOT) + "_COMPLETION_TABLE")
+			.replace("@TABLE@", "'" + table.toString().replace("'", "'\\''") + "'")
+			.replace("@FISH_TABLE@", "'" + table.toString().replace("\\", "\\\\").replace("'", "\\'") + "'");
+	}
+}
@@ -0,0 +1,98 @@
+package net.callisto.argparse;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+// the option names of a schema sorted once, so completing a prefix is a binary search
+final class CompletionTable {
+	enum Value {
+		// flags and counters
+		NONE,
+		TEXT,
+		// Path and File values, completed by the shell
+		FILE
+	}
+	
+	// every long (--name) and short (-n) name, sorted
+	private final String[]  names;
+	// the index of the option each name belongs to
+	private final int[]     nameOptions;
+	private final Value[]   values;
+	private final boolean[] repeatable;
+	private final Value[]   positionals;
+	
+	CompletionTable(final List<ArgumentInfo> relative, final List<ArgumentInfo> positional) {
+		final List<String> names = new ArrayList<>(relative.size() * 2);
+		for (ArgumentInfo argument : relative) {
+			names.add(ArgumentParser.LONG_ARGUMENT_PREFIX + argument.longName());
+			if (argument.shortName() != null) {
+				names.add("-" + argument.shortName());
+			}
+		}
+		names.sort(null);
+		
+		this.names       = names.toArray(String[]::new);
+		this.nameOptions = new int[this.names.length];
+		this.values      = new Value[relative.size()];
+		this.repeatable  = new boolean[relative.size()];
+		this.positionals = new Value[positional.size()];
+		
+		for (ArgumentInfo argument : relative) {
+			this.values[argument.index()]     = value(argument);
+			this.repeatable[argument.index()] = argument.getArgumentType() == ArgumentType.COUNT
+				|| argument.getArgumentType() == ArgumentType.APPEND;
+			
+			this.nameOptions[Arrays.binarySearch(this.names, ArgumentParser.LONG_ARGUMENT_PREFIX + argument.longName())] = argument.index();
+			if (argument.shortName() != null) {
+				this.nameOptions[Arrays.binarySearch(this.names, "-" + argument.shortName())] = argument.index();
+			}
+		}
+		for (ArgumentInfo argument : positional) {
+			this.positionals[argument.index()] = value(argument);
+		}
+	}
+	
+	static Value value(final ArgumentInfo argument) {
+		return switch (argument.getArgumentType()) {
+			case COUNT, TRUE_IF_PRESENT, FALSE_IF_PRESENT -> Value.NONE;
+			case DEFAULT, APPEND -> {
+				// APPEND and Lazy arguments convert to their element type
+				final Class<?> type = argument.elementType() != null ? argument.elementType() : argument.field().getType();
+				yield type == Path.class || type == File.class ? Value.FILE : Value.TEXT;
+			}
+		};
+	}
+	
+	// the names starting with the prefix, without the options that were used already and can't be repeated
+	List<String> names(final String prefix, final boolean[] used) {
+		// the first name that is not smaller than the prefix
+		int from = Arrays.binarySearch(this.names, prefix);
+		if (from < 0) {
+			from = -from - 1;
+		}
+		
+		final List<String> names = new ArrayList<>();
+		for (int n = from; n < this.names.length && this.names[n].startsWith(prefix); n++) {
+			final int option = this.nameOptions[n];
+			if (!used[option] || this.repeatable[option]) {
+				names.add(this.names[n]);
+			}
+		}
+		
+		return names;
+	}
+	
+	int options() {
+		return this.values.length;
+	}
+	
+	Value value(final int option) {
+		return this.values[option];
+	}
+	
+	// null beyond the declared positionals
+	Value positional(final int index) {
+		return index < this.positionals.length ? this.positionals[index] : null;
+	}
+}
@@ -0,0 +1,172 @@
+package net.callisto.argparse;
+
+import java.lang.reflect.*;
+import java.math.*;
+import java.net.*;
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.*;
+
+// bounded LRU cache of converted values, split into segments so parallel parses rarely wait for each other
+final class ConversionCache {
+	private static final int MAX_SEGMENTS         = 16;
+	private static final int MIN_SEGMENT_CAPACITY = 16;
+	
+	// JDK types whose instances are documented as immutable
+	private static final Set<Class<?>> KNOWN_IMMUTABLE = Set.of(
+		String.class,
+		Boolean.class,
+		Byte.class,
+		Short.class,
+		Character.class,
+		Integer.class,
+		Long.class,
+		Float.class,
+		Double.class,
+		BigInteger.class,
+		BigDecimal.class,
+		Path.class,
+		java.io.File.class,
+		URI.class,
+		UUID.class,
+		Duration.class,
+		Instant.class,
+		LocalDate.class,
+		LocalTime.class,
+		LocalDateTime.class,
+		ZonedDateTime.class,
+		OffsetDateTime.class,
+		ZoneId.class,
+		Period.class
+	);
+	
+	private final Segment[] segments;
+	private final LongAdder hits      = new LongAdder();
+	private final LongAdder misses    = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	
+	// incremented by clear(), values converted before it must not be put back afterwards
+	private final AtomicInteger generation = new AtomicInteger();
+	
+	ConversionCache(final int maximumSize) {
+		if (maximumSize < 1) {
+			throw new IllegalArgumentException("the maximum size has to be positive, got " + maximumSize);
+		}
+		
+		final int segmentCount = Math.clamp(maximumSize / MIN_SEGMENT_CAPACITY, 1, MAX_SEGMENTS);
+		
+		// the capacities add up to exactly maximumSize
+		this.segments = new Segment[segmentCount];
+		for (int i = 0; i < segmentCount; i++) {
+			this.segments[i] = new Segment(maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0));
+		}
+	}
+	
+	// enums, @Immutable classes, some JDK value types and records whose components are all one of these or primitives
+	static boolean isImmutable(final Class<?> type) {
+		return isImmutable(type, new HashSet<>());
+	}
+	
+	// a record only has final fields, but a List or array in one of them can still be changed
+	private static boolean isImmutable(final Class<?> type, final Set<Class<?>> records) {
+		if (type.isEnum() || type.isAnnotationPresent(Immutable.class) || KNOWN_IMMUTABLE.contains(type)) {
+			return true;
+		}
+		
+		if (!type.isRecord()) {
+			return false;
+		}
+		
+		// a record containing itself is immutable if its other components are
+		if (!records.add(type)) {
+			return true;
+		}
+		
+		for (RecordComponent component : type.getRecordComponents()) {
+			if (!component.getType().isPrimitive() && !isImmutable(component.getType(), records)) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	Object get(final String value, final Function<String, ?> converter) {
+		final Segment segment = segmentFor(value);
+		
+		Object converted;
+		synchronized (segment) {
+			converted = segment.get(value);
+		}
+		
+		if (converted != null) {
+			this.hits.increment();
+			return converted;
+		}
+		
+		// converted outside the lock, so a slow converter does not block the segment
+		this.misses.increment();
+		final int generation = this.generation.get();
+		converted = converter.apply(value);
+		
+		if (converted != null) {
+			synchronized (segment) {
+				// clear() increments the generation before it takes the locks,
+				// so a clear() that started during the conversion either is seen here or removes the value after
+				if (this.generation.get() == generation) {
+					segment.put(value, converted);
+				}
+			}
+		}
+		
+		return converted;
+	}
+	
+	void clear() {
+		this.generation.incrementAndGet();
+		
+		for (Segment segment : this.segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+	
+	CacheStatistics statistics() {
+		int size = 0;
+		for (Segment segment : this.segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		
+		return new CacheStatistics(this.hits.sum(), this.misses.sum(), this.evictions.sum(), size);
+	}
+	
+	private Segment segmentFor(final String value) {
+		final int hash = value.hashCode();
+		return this.segments[((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % this.segments.length];
+	}
+	
+	// guarded by its own monitor
+	private final class Segment extends LinkedHashMap<String, Object> {
+		private final int capacity;
+		
+		Segment(final int capacity) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+		}
+		
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<String, Object> eldest) {
+			if (size() > this.capacity) {
+				ConversionCache.this.evictions.increment();
+				return true;
+			}
+			
+			return false;
+		}
+	}
+}
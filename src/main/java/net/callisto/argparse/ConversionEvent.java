@@ -0,0 +1,17 @@
+package net.callisto.argparse;
+
+import jdk.jfr.*;
+
+@Name("net.callisto.argparse.Conversion")
+@Label("Conversion")
+@Category("JavArgparse")
+@StackTrace(false)
+final class ConversionEvent extends Event {
+	static final EventType TYPE = EventType.getEventType(ConversionEvent.class);
+	
+	@Label("Type")
+	Class<?> type;
+	
+	@Label("Failed")
+	boolean failed;
+}
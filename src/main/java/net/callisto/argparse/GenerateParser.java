@@ -0,0 +1,8 @@
+package net.callisto.argparse;
+
+import java.lang.annotation.*;
+
+@Retention(value = RetentionPolicy.SOURCE)
+@Target(value = ElementType.TYPE)
+public @interface GenerateParser {
+}
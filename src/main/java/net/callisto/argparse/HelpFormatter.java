@@ -0,0 +1,235 @@
+package net.callisto.argparse;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.util.*;
+
+// renders the usage and the description of every argument of a schema, wrapped to a terminal width
+// the result only depends on the schema, the program name and the width, so it can be kept once encoded
+final class HelpFormatter {
+	static final int DEFAULT_WIDTH = 80;
+	
+	// descriptions start after the longest label, but never further right than this
+	private static final int MAX_LABEL_WIDTH = 24;
+	// below this, descriptions are wrapped into a column that is too narrow to read
+	private static final int MIN_TEXT_WIDTH  = 20;
+	private static final int INDENT          = 2;
+	
+	private final ArgumentSchema<?> schema;
+	private final String            programName;
+	private final int               width;
+	private final StringBuilder     builder = new StringBuilder(512);
+	
+	private HelpFormatter(final ArgumentSchema<?> schema, final String programName, final int width) {
+		this.schema      = schema;
+		this.programName = programName;
+		this.width       = width;
+	}
+	
+	static String render(final ArgumentSchema<?> schema, final String programName, final int width) {
+		return new HelpFormatter(schema, programName, width).render();
+	}
+	
+	// the width from the COLUMNS variable most shells export, 80 if it is missing or invalid
+	static int terminalWidth() {
+		final String columns = System.getenv("COLUMNS");
+		
+		if (columns != null) {
+			try {
+				final int width = Integer.parseInt(columns.trim());
+				if (width > 0) {
+					return width;
+				}
+			} catch (final NumberFormatException ignored) {
+				// fall through to the default
+			}
+		}
+		
+		return DEFAULT_WIDTH;
+	}
+	
+	// the terminal doesn't change while the program runs, so it is only looked up once
+	static Charset terminalCharset() {
+		return Terminal.CHARSET;
+	}
+	
+	private static final class Terminal {
+		private static final Charset CHARSET = findCharset();
+	}
+	
+	private static Charset findCharset() {
+		final Console console = System.console();
+		if (console != null) {
+			return console.charset();
+		}
+		
+		final String encoding = System.getProperty("stdout.encoding");
+		if (encoding != null && Charset.isSupported(encoding)) {
+			return Charset.forName(encoding);
+		}
+		
+		return Charset.defaultCharset();
+	}
+	
+	private String render() {
+		writeUsage();
+		
+		final List<ArgumentInfo> positionals = this.schema.positionalArguments();
+		final List<ArgumentInfo> options     = this.schema.relativeArguments();
+		
+		int labelWidth = 0;
+		for (ArgumentInfo argument : positionals) {
+			labelWidth = Math.max(labelWidth, positionalLabel(argument).length());
+		}
+		for (ArgumentInfo argument : options) {
+			labelWidth = Math.max(labelWidth, optionLabel(argument).length());
+		}
+		labelWidth = Math.min(labelWidth, MAX_LABEL_WIDTH);
+		
+		if (!positionals.isEmpty()) {
+			this.builder.append("\npositional arguments:\n");
+			for (ArgumentInfo argument : positionals) {
+				writeEntry(positionalLabel(argument), description(argument), labelWidth);
+			}
+		}
+		
+		if (!options.isEmpty()) {
+			this.builder.append("\noptions:\n");
+			for (ArgumentInfo argument : options) {
+				writeEntry(optionLabel(argument), description(argument), labelWidth);
+			}
+		}
+		
+		return this.builder.toString();
+	}
+	
+	// e.g. usage: program [-v]... [-n NAME] input
+	private void writeUsage() {
+		final String prefix = "usage: " + this.programName;
+		
+		final List<String> words = new ArrayList<>();
+		for (ArgumentInfo argument : this.schema.relativeArguments()) {
+			words.add(usage(argument));
+		}
+		for (ArgumentInfo argument : this.schema.positionalArguments()) {
+			words.add(positionalLabel(argument));
+		}
+		
+		this.builder.append(prefix);
+		wrap(words, prefix.length(), prefix.length() + 1, false);
+	}
+	
+	private static String usage(final ArgumentInfo argument) {
+		final String name = argument.shortName() != null
+			? "-" + argument.shortName()
+			: ArgumentParser.LONG_ARGUMENT_PREFIX + argument.longName();
+		
+		final String usage = switch (argument.getArgumentType()) {
+			case DEFAULT, APPEND -> name + " " + metavar(argument);
+			default -> name;
+		};
+		
+		final String repeated = switch (argument.getArgumentType()) {
+			case COUNT, APPEND -> "...";
+			default -> "";
+		};
+		
+		return required(argument) ? usage + repeated : "[" + usage + "]" + repeated;
+	}
+	
+	private static String positionalLabel(final ArgumentInfo argument) {
+		return metavar(argument).toLowerCase(Locale.ROOT);
+	}
+	
+	// e.g. -n, --name NAME
+	private static String optionLabel(final ArgumentInfo argument) {
+		final StringBuilder label = new StringBuilder();
+		
+		if (argument.shortName() != null) {
+			label.append('-').append(argument.shortName()).append(", ");
+		}
+		label.append(ArgumentParser.LONG_ARGUMENT_PREFIX).append(argument.longName());
+		
+		if (argument.getArgumentType() == ArgumentType.DEFAULT || argument.getArgumentType() == ArgumentType.APPEND) {
+			label.append(' ').append(metavar(argument));
+		}
+		
+		return label.toString();
+	}
+	
+	private static String metavar(final ArgumentInfo argument) {
+		return argument.longName().replace('-', '_').toUpperCase(Locale.ROOT);
+	}
+	
+	// counters and positionals can't be left out, but counters are 0 if they are
+	private static boolean required(final ArgumentInfo argument) {
+		return argument.positional() || !argument.optional() && argument.getArgumentType() != ArgumentType.COUNT;
+	}
+	
+	// e.g. Port to listen on (int, required)
+	private static String description(final ArgumentInfo argument) {
+		final List<String> details = new ArrayList<>(3);
+		
+		details.add(switch (argument.getArgumentType()) {
+			case COUNT -> "count";
+			case TRUE_IF_PRESENT, FALSE_IF_PRESENT -> "flag";
+			case APPEND -> argument.elementType().getSimpleName();
+			case DEFAULT -> (argument.lazy() ? argument.elementType() : argument.field().getType()).getSimpleName();
+		});
+		if (argument.getArgumentType() == ArgumentType.APPEND) {
+			details.add("repeatable");
+		}
+		if (!argument.positional() && required(argument)) {
+			details.add("required");
+		}
+		
+		final String help   = argument.field().getAnnotationsByType(Argument.class)[0].help();
+		final String suffix = "(" + String.join(", ", details) + ")";
+		
+		return help.isBlank() ? suffix : help.strip() + " " + suffix;
+	}
+	
+	private void writeEntry(final String label, final String description, final int labelWidth) {
+		final int column = INDENT + labelWidth + INDENT;
+		
+		this.builder.append(" ".repeat(INDENT)).append(label);
+		
+		// labels that are too long get their description on the next line
+		int start = INDENT + label.length();
+		if (label.length() > labelWidth) {
+			this.builder.append('\n');
+			start = 0;
+		}
+		
+		this.builder.append(" ".repeat(column - start));
+		wrap(List.of(description.split(" +")), column, column, true);
+	}
+	
+	// appends the words separated by spaces and breaks the line before a word that would go past the width
+	// column is where the builder is at, indent where continuation lines start
+	private void wrap(final List<String> words, final int column, final int indent, final boolean lineStart) {
+		final int right = Math.max(this.width, indent + MIN_TEXT_WIDTH);
+		
+		int     position = column;
+		boolean start    = lineStart;
+		for (String word : words) {
+			// a word longer than a whole line gets a line of its own and runs past the width
+			if (!start && position + 1 + word.length() > right) {
+				this.builder.append('\n').append(" ".repeat(indent));
+				position = indent;
+				start    = true;
+			}
+			
+			if (!start) {
+				this.builder.append(' ');
+				position++;
+			}
+			
+			this.builder.append(word);
+			position += word.length();
+			start     = false;
+		}
+		
+		this.builder.append('\n');
+	}
+}
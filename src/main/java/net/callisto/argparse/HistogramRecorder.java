@@ -0,0 +1,122 @@
+package net.callisto.argparse;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+// a listener that keeps durations in power of two buckets, can be shared between parsers and threads
+public final class HistogramRecorder implements ParseListener {
+	public enum Phase {
+		ARGUMENTS,
+		VERIFY,
+		TOTAL,
+		CONVERSION
+	}
+	
+	// bucket i holds durations of at least 2^(i - 1) and less than 2^i nanoseconds, bucket 0 holds 0
+	private static final int BUCKETS = Long.SIZE;
+	
+	private final AtomicLongArray[]        histograms  = new AtomicLongArray[Phase.values().length];
+	private final Map<Class<?>, LongAdder> conversions = new ConcurrentHashMap<>();
+	private final LongAdder                parses      = new LongAdder();
+	private final LongAdder                errors      = new LongAdder();
+	private final LongAdder                tokens      = new LongAdder();
+	
+	public HistogramRecorder() {
+		for (int i = 0; i < this.histograms.length; i++) {
+			this.histograms[i] = new AtomicLongArray(BUCKETS);
+		}
+	}
+	
+	@Override
+	public void parsed(final ParseMetrics metrics) {
+		record(Phase.ARGUMENTS, metrics.argumentNanos());
+		record(Phase.VERIFY, metrics.verifyNanos());
+		record(Phase.TOTAL, metrics.totalNanos());
+		
+		this.parses.increment();
+		this.errors.add(metrics.errors());
+		this.tokens.add(metrics.tokens());
+	}
+	
+	@Override
+	public void converted(final Class<?> type, final long nanos, final boolean failed) {
+		record(Phase.CONVERSION, nanos);
+		this.conversions.computeIfAbsent(type, ignored -> new LongAdder()).increment();
+	}
+	
+	private void record(final Phase phase, final long nanos) {
+		this.histograms[phase.ordinal()].incrementAndGet(bucket(nanos));
+	}
+	
+	private static int bucket(final long nanos) {
+		return nanos <= 0 ? 0 : Long.SIZE - Long.numberOfLeadingZeros(nanos);
+	}
+	
+	public long[] buckets(final Phase phase) {
+		final AtomicLongArray histogram = this.histograms[phase.ordinal()];
+		final long[]          buckets   = new long[BUCKETS];
+		
+		for (int i = 0; i < BUCKETS; i++) {
+			buckets[i] = histogram.get(i);
+		}
+		
+		return buckets;
+	}
+	
+	public long count(final Phase phase) {
+		return Arrays.stream(buckets(phase)).sum();
+	}
+	
+	// the upper bound of the bucket the quantile falls into, 0 if nothing was recorded
+	public long quantile(final Phase phase, final double quantile) {
+		if (quantile < 0 || quantile > 1) {
+			throw new IllegalArgumentException("quantile must be between 0 and 1, is " + quantile);
+		}
+		
+		final long[] buckets = buckets(phase);
+		final long   total   = Arrays.stream(buckets).sum();
+		final long   rank    = (long) Math.ceil(quantile * total);
+		
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += buckets[i];
+			if (seen >= rank && seen > 0) {
+				return i == 0 ? 0 : i == BUCKETS - 1 ? Long.MAX_VALUE : 1L << i;
+			}
+		}
+		
+		return 0;
+	}
+	
+	public long parses() {
+		return this.parses.sum();
+	}
+	
+	public long errors() {
+		return this.errors.sum();
+	}
+	
+	public long tokens() {
+		return this.tokens.sum();
+	}
+	
+	public Map<Class<?>, Long> conversions() {
+		final Map<Class<?>, Long> counts = new HashMap<>();
+		this.conversions.forEach((type, count) -> counts.put(type, count.sum()));
+		return counts;
+	}
+	
+	public void reset() {
+		for (AtomicLongArray histogram : this.histograms) {
+			for (int i = 0; i < BUCKETS; i++) {
+				histogram.set(i, 0);
+			}
+		}
+		
+		this.conversions.clear();
+		this.parses.reset();
+		this.errors.reset();
+		this.tokens.reset();
+	}
+}
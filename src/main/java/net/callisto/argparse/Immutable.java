@@ -0,0 +1,9 @@
+package net.callisto.argparse;
+
+import java.lang.annotation.*;
+
+// marks a class whose instances never change, so converted values of it may be cached and shared
+@Retention(value = RetentionPolicy.RUNTIME)
+@Target(value = ElementType.TYPE)
+public @interface Immutable {
+}
@@ -0,0 +1,59 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.exceptions.*;
+
+import java.util.function.*;
+
+// the value of a Lazy<T> or Supplier<T> argument, only converted on the first get()
+// every later get() returns the same value, or throws the same exception if the conversion failed
+public final class Lazy<T> implements Supplier<T> {
+	private final String value;
+	private final int    position;
+	
+	// cleared once it has run, so the parser it came from can be collected
+	private Function<String, ? extends T> converter;
+	private T                             converted;
+	private LazyConversionFailed          failure;
+	
+	Lazy(final String value, final int position, final Function<String, ? extends T> converter) {
+		this.value     = value;
+		this.position  = position;
+		this.converter = converter;
+	}
+	
+	@Override
+	public synchronized T get() {
+		if (this.converter != null) {
+			try {
+				this.converted = this.converter.apply(this.value);
+			} catch (final RuntimeException exc) {
+				this.failure = new LazyConversionFailed(this.value, this.position, exc);
+			}
+			this.converter = null;
+		}
+		
+		if (this.failure != null) {
+			throw this.failure;
+		}
+		
+		return this.converted;
+	}
+	
+	public synchronized boolean isConverted() {
+		return this.converter == null;
+	}
+	
+	// the argument as it was given
+	public String value() {
+		return this.value;
+	}
+	
+	public int position() {
+		return this.position;
+	}
+	
+	@Override
+	public String toString() {
+		return "Lazy[" + this.value + "]";
+	}
+}
@@ -0,0 +1,98 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.exceptions.*;
+
+import java.util.*;
+
+// splits a line into arguments exactly like ArgumentTokenizer, but in a single pass over a CharSequence
+// arguments without quotes or backslashes are copied straight out of the line, only the others go through a builder
+final class LineScanner {
+	private LineScanner() {
+	}
+	
+	static String[] split(final CharSequence line) {
+		final int     length    = line.length();
+		String[]      arguments = new String[8];
+		int           count     = 0;
+		StringBuilder builder   = null;
+		
+		int i = 0;
+		while (true) {
+			while (i < length && Character.isWhitespace(line.charAt(i))) {
+				i++;
+			}
+			if (i == length) {
+				break;
+			}
+			
+			final int start = i;
+			while (i < length && !isSpecial(line.charAt(i))) {
+				i++;
+			}
+			
+			final String argument;
+			if (i == length || Character.isWhitespace(line.charAt(i))) {
+				argument = line.subSequence(start, i).toString();
+			} else {
+				// a quote or a backslash, the rest of the argument has to be unquoted
+				if (builder == null) {
+					builder = new StringBuilder(length - start);
+				} else {
+					builder.setLength(0);
+				}
+				builder.append(line, start, i);
+				
+				i        = unquote(line, i, builder);
+				argument = builder.toString();
+			}
+			
+			if (count == arguments.length) {
+				arguments = Arrays.copyOf(arguments, count << 1);
+			}
+			arguments[count++] = argument;
+		}
+		
+		return count == arguments.length ? arguments : Arrays.copyOf(arguments, count);
+	}
+	
+	// appends the argument starting at i to the builder and returns the index after it
+	private static int unquote(final CharSequence line, final int from, final StringBuilder builder) {
+		final int length = line.length();
+		int       quote  = 0;
+		
+		int i = from;
+		while (i < length) {
+			final char c = line.charAt(i);
+			
+			if (quote == 0 && Character.isWhitespace(c)) {
+				break;
+			}
+			
+			if (quote == 0 && (c == '"' || c == '\'')) {
+				quote = c;
+			} else if (c == quote) {
+				quote = 0;
+			} else if (c == '\\' && quote != '\'') {
+				// nothing is escaped inside single quotes, a trailing backslash is dropped
+				if (++i == length) {
+					break;
+				}
+				builder.append(line.charAt(i));
+			} else {
+				builder.append(c);
+			}
+			
+			i++;
+		}
+		
+		if (quote != 0) {
+			throw new UnterminatedQuote(builder.toString());
+		}
+		
+		return i;
+	}
+	
+	private static boolean isSpecial(final char c) {
+		return c == '"' || c == '\'' || c == '\\' || Character.isWhitespace(c);
+	}
+}
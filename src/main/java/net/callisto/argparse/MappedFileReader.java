@@ -0,0 +1,81 @@
+package net.callisto.argparse;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+
+// decodes a file straight from a memory mapping into the caller's buffer
+// the file is mapped in windows, so even huge files never need more than one window of address space
+final class MappedFileReader extends Reader {
+	static final long DEFAULT_WINDOW_SIZE = 64L << 20;
+	
+	// more than any charset needs for one character, a window ending in fewer bytes may split one
+	private static final int MAX_BYTES_PER_CHARACTER = 16;
+	
+	private final FileChannel    channel;
+	private final CharsetDecoder decoder;
+	private final long           size;
+	private final long           windowSize;
+	private       ByteBuffer     window;
+	private       long           windowEnd;
+	private       boolean        finished;
+	
+	MappedFileReader(final Path file) throws IOException {
+		this(file, DEFAULT_WINDOW_SIZE);
+	}
+	
+	MappedFileReader(final Path file, final long windowSize) throws IOException {
+		this.channel    = FileChannel.open(file, StandardOpenOption.READ);
+		this.decoder    = StandardCharsets.UTF_8.newDecoder()
+			.onMalformedInput(CodingErrorAction.REPORT)
+			.onUnmappableCharacter(CodingErrorAction.REPORT);
+		this.size       = this.channel.size();
+		this.windowSize = windowSize;
+		
+		map(0);
+	}
+	
+	private void map(final long start) throws IOException {
+		final long length = Math.min(this.windowSize, this.size - start);
+		
+		this.window    = this.channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+		this.windowEnd = start + length;
+	}
+	
+	@Override
+	public int read(final char[] buffer, final int offset, final int length) throws IOException {
+		if (length == 0) {
+			return 0;
+		}
+		
+		final CharBuffer out = CharBuffer.wrap(buffer, offset, length);
+		
+		while (out.position() == offset && !this.finished) {
+			if (this.window.remaining() < MAX_BYTES_PER_CHARACTER && this.windowEnd < this.size) {
+				// the next window starts with the bytes this one could not decode yet
+				map(this.windowEnd - this.window.remaining());
+			}
+			
+			final boolean endOfInput = this.windowEnd == this.size;
+			
+			final CoderResult result = this.decoder.decode(this.window, out, endOfInput);
+			if (result.isError()) {
+				result.throwException();
+			}
+			
+			if (endOfInput && !this.window.hasRemaining() && result.isUnderflow()) {
+				this.finished = this.decoder.flush(out).isUnderflow();
+			}
+		}
+		
+		final int read = out.position() - offset;
+		return read == 0 ? -1 : read;
+	}
+	
+	@Override
+	public void close() throws IOException {
+		this.channel.close();
+	}
+}
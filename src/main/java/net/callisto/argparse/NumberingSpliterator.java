@@ -0,0 +1,61 @@
+package net.callisto.argparse;
+
+import java.util.*;
+import java.util.function.*;
+
+// numbers the elements of a spliterator in encounter order, even if the stream is parallel
+// splits by buffering a batch of numbered elements, like the spliterators of iterators and readers do
+final class NumberingSpliterator<E> implements Spliterator<NumberingSpliterator.Numbered<E>> {
+	record Numbered<E>(long index, E value) {
+	}
+	
+	private static final int BATCH_INCREMENT = 1 << 10;
+	private static final int MAX_BATCH       = 1 << 16;
+	
+	private final Spliterator<E> source;
+	private       long           nextIndex = 0;
+	private       int            batch     = 0;
+	
+	NumberingSpliterator(final Spliterator<E> source) {
+		this.source = source;
+	}
+	
+	@Override
+	public boolean tryAdvance(final Consumer<? super Numbered<E>> action) {
+		return this.source.tryAdvance(element -> action.accept(new Numbered<>(this.nextIndex++, element)));
+	}
+	
+	@Override
+	public Spliterator<Numbered<E>> trySplit() {
+		final int size = Math.min(this.batch + BATCH_INCREMENT, MAX_BATCH);
+		
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		final Numbered<E>[] elements = new Numbered[size];
+		
+		int count = 0;
+		while (count < size) {
+			final int slot = count;
+			if (!this.source.tryAdvance(element -> elements[slot] = new Numbered<>(this.nextIndex++, element))) {
+				break;
+			}
+			count += 1;
+		}
+		
+		if (count == 0) {
+			return null;
+		}
+		
+		this.batch = count;
+		return Spliterators.spliterator(elements, 0, count, Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+	}
+	
+	@Override
+	public long estimateSize() {
+		return this.source.estimateSize();
+	}
+	
+	@Override
+	public int characteristics() {
+		return Spliterator.ORDERED | Spliterator.NONNULL;
+	}
+}
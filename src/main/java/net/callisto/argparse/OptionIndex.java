@@ -0,0 +1,85 @@
+package net.callisto.argparse;
+
+import java.util.*;
+
+// compiled lookup of relative arguments: short names by char, long names by an open addressing hash table
+final class OptionIndex {
+	private static final int DIRECT_SHORT_NAMES = 128;
+	
+	private final ArgumentInfo[]               asciiShortNames = new ArgumentInfo[DIRECT_SHORT_NAMES];
+	private final Map<Character, ArgumentInfo> otherShortNames = new HashMap<>();
+	private final String[]                     longNames;
+	private final ArgumentInfo[]               longArguments;
+	private final int                          mask;
+	
+	OptionIndex(final List<ArgumentInfo> arguments) {
+		// at most half full, so probing sequences stay short
+		final int capacity = Integer.highestOneBit(Math.max(arguments.size(), 1) * 2 - 1) << 1;
+		
+		this.longNames     = new String[capacity];
+		this.longArguments = new ArgumentInfo[capacity];
+		this.mask          = capacity - 1;
+		
+		for (ArgumentInfo argument : arguments) {
+			insertLong(argument);
+			
+			if (argument.shortName() != null) {
+				final char shortName = argument.shortName().charAt(0);
+				
+				if (shortName < DIRECT_SHORT_NAMES) {
+					this.asciiShortNames[shortName] = argument;
+				} else {
+					this.otherShortNames.put(shortName, argument);
+				}
+			}
+		}
+	}
+	
+	private static int hash(final String source, final int from, final int to) {
+		// same as String.hashCode, but over a range
+		int hash = 0;
+		for (int i = from; i < to; i++) {
+			hash = 31 * hash + source.charAt(i);
+		}
+		
+		// spread the high bits, the table is indexed with the low ones
+		return hash ^ (hash >>> 16);
+	}
+	
+	private void insertLong(final ArgumentInfo argument) {
+		final String name = argument.longName();
+		
+		int slot = hash(name, 0, name.length()) & this.mask;
+		while (this.longNames[slot] != null) {
+			slot = (slot + 1) & this.mask;
+		}
+		
+		this.longNames[slot]     = name;
+		this.longArguments[slot] = argument;
+	}
+	
+	ArgumentInfo findShort(final char shortName) {
+		if (shortName < DIRECT_SHORT_NAMES) {
+			return this.asciiShortNames[shortName];
+		}
+		
+		return this.otherShortNames.get(shortName);
+	}
+	
+	// looks up source[from, to) without creating a substring
+	ArgumentInfo findLong(final String source, final int from, final int to) {
+		final int length = to - from;
+		
+		int slot = hash(source, from, to) & this.mask;
+		String name;
+		while ((name = this.longNames[slot]) != null) {
+			if (name.length() == length && source.regionMatches(from, name, 0, length)) {
+				return this.longArguments[slot];
+			}
+			
+			slot = (slot + 1) & this.mask;
+		}
+		
+		return null;
+	}
+}
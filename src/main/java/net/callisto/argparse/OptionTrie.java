@@ -0,0 +1,175 @@
+package net.callisto.argparse;
+
+import java.util.*;
+
+// long names by their prefixes, every node knows whether a single argument starts with it
+// the nodes are kept in parallel arrays, children are a linked list of siblings
+// also finds similar names for suggestions, names sharing a prefix share the work of comparing it
+final class OptionTrie {
+	private static final int ROOT = 0;
+	
+	private char[]         labels;
+	private int[]          firstChildren;
+	private int[]          nextSiblings;
+	// the number of names below the node and the first of them
+	private int[]          counts;
+	private ArgumentInfo[] firstArguments;
+	// the argument whose name ends at the node
+	private ArgumentInfo[] terminals;
+	private int            size  = 1;
+	// the length of the longest name
+	private int            depth = 0;
+	
+	OptionTrie(final List<ArgumentInfo> arguments) {
+		final int capacity = 1 + arguments.stream().mapToInt(argument -> argument.longName().length()).sum();
+		
+		this.labels         = new char[capacity];
+		this.firstChildren  = new int[capacity];
+		this.nextSiblings   = new int[capacity];
+		this.counts         = new int[capacity];
+		this.firstArguments = new ArgumentInfo[capacity];
+		this.terminals      = new ArgumentInfo[capacity];
+		Arrays.fill(this.firstChildren, -1);
+		Arrays.fill(this.nextSiblings, -1);
+		
+		for (ArgumentInfo argument : arguments) {
+			insert(argument);
+			this.depth = Math.max(this.depth, argument.longName().length());
+		}
+		
+		// the capacity assumed no shared prefixes
+		this.labels         = Arrays.copyOf(this.labels, this.size);
+		this.firstChildren  = Arrays.copyOf(this.firstChildren, this.size);
+		this.nextSiblings   = Arrays.copyOf(this.nextSiblings, this.size);
+		this.counts         = Arrays.copyOf(this.counts, this.size);
+		this.firstArguments = Arrays.copyOf(this.firstArguments, this.size);
+		this.terminals      = Arrays.copyOf(this.terminals, this.size);
+	}
+	
+	private void insert(final ArgumentInfo argument) {
+		final String name = argument.longName();
+		
+		int node = ROOT;
+		for (int i = 0; i < name.length(); i++) {
+			int child = child(node, name.charAt(i));
+			
+			if (child < 0) {
+				child                    = this.size++;
+				this.labels[child]       = name.charAt(i);
+				this.nextSiblings[child] = this.firstChildren[node];
+				this.firstChildren[node] = child;
+			}
+			
+			if (this.counts[child]++ == 0) {
+				this.firstArguments[child] = argument;
+			}
+			node = child;
+		}
+		
+		this.terminals[node] = argument;
+	}
+	
+	private int child(final int node, final char label) {
+		int child = this.firstChildren[node];
+		while (child >= 0 && this.labels[child] != label) {
+			child = this.nextSiblings[child];
+		}
+		
+		return child;
+	}
+	
+	// the node reached by source[from, to), -1 if no name starts with it
+	private int walk(final String source, final int from, final int to) {
+		int node = ROOT;
+		for (int i = from; i < to && node >= 0; i++) {
+			node = child(node, source.charAt(i));
+		}
+		
+		return node;
+	}
+	
+	// the only argument whose name starts with source[from, to), null if there is none or more than one
+	ArgumentInfo find(final String source, final int from, final int to) {
+		final int node = walk(source, from, to);
+		
+		return node > ROOT && this.counts[node] == 1 ? this.firstArguments[node] : null;
+	}
+	
+	// all names starting with source[from, to), sorted
+	List<String> candidates(final String source, final int from, final int to) {
+		final int node = walk(source, from, to);
+		if (node <= ROOT) {
+			return List.of();
+		}
+		
+		final List<String>   names = new ArrayList<>(this.counts[node]);
+		final Deque<Integer> nodes = new ArrayDeque<>();
+		nodes.push(node);
+		
+		while (!nodes.isEmpty()) {
+			final int current = nodes.pop();
+			if (this.terminals[current] != null) {
+				names.add(this.terminals[current].longName());
+			}
+			
+			for (int child = this.firstChildren[current]; child >= 0; child = this.nextSiblings[child]) {
+				nodes.push(child);
+			}
+		}
+		
+		Collections.sort(names);
+		return names;
+	}
+	
+	// the names at most maxDistance edits (Levenshtein) away from word, nearest first and at most limit of them
+	// one row of the distance matrix per trie level, a subtree is skipped once every entry of its row is too far
+	// only the band of maxDistance cells around the diagonal is computed, everything outside is too far anyway
+	List<String> similar(final String word, final int maxDistance, final int limit) {
+		final int[][] rows = new int[this.depth + 1][word.length() + 1];
+		for (int[] row : rows) {
+			Arrays.fill(row, maxDistance + 1);
+		}
+		for (int j = 0; j <= Math.min(word.length(), maxDistance); j++) {
+			rows[0][j] = j;
+		}
+		
+		final List<Map.Entry<String, Integer>> found = new ArrayList<>();
+		visit(ROOT, 0, rows, word, maxDistance, found);
+		
+		return found.stream()
+			.sorted(Map.Entry.<String, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+			.limit(limit)
+			.map(Map.Entry::getKey)
+			.toList();
+	}
+	
+	// rows[level] belongs to node, its children fill rows[level + 1]
+	private void visit(final int node, final int level, final int[][] rows, final String word, final int maxDistance,
+		final List<Map.Entry<String, Integer>> found) {
+		final int[] previous = rows[level];
+		final int[] row      = rows[level + 1];
+		final int   from     = Math.max(1, level + 1 - maxDistance);
+		final int   to       = Math.min(word.length(), level + 1 + maxDistance);
+		
+		for (int child = this.firstChildren[node]; child >= 0; child = this.nextSiblings[child]) {
+			final char label = this.labels[child];
+			
+			row[0] = Math.min(previous[0] + 1, maxDistance + 1);
+			int closest = row[0];
+			
+			for (int j = from; j <= to; j++) {
+				final int substitution = previous[j - 1] + (word.charAt(j - 1) == label ? 0 : 1);
+				row[j]  = Math.min(substitution, Math.min(previous[j], row[j - 1]) + 1);
+				closest = Math.min(closest, row[j]);
+			}
+			
+			if (this.terminals[child] != null && row[word.length()] <= maxDistance) {
+				found.add(Map.entry(this.terminals[child].longName(), row[word.length()]));
+			}
+			
+			if (closest <= maxDistance && this.firstChildren[child] >= 0) {
+				visit(child, level + 1, rows, word, maxDistance, found);
+			}
+		}
+	}
+}
@@ -0,0 +1,19 @@
+package net.callisto.argparse;
+
+// position is the index of the argument the error was found at, -1 for errors found after all arguments were handled
+// argument is the argument or value at fault, or the name of a missing option
+public record ParseError(Code code, int position, String argument, String message) {
+	public enum Code {
+		UNKNOWN_ARGUMENT,
+		AMBIGUOUS_ARGUMENT,
+		DUPLICATE_ARGUMENT,
+		MISSING_VALUE,
+		UNEXPECTED_VALUE,
+		TOO_MANY_POSITIONALS,
+		NOT_ENOUGH_POSITIONALS,
+		REQUIRED_ARGUMENT_NOT_USED,
+		INVALID_VALUE,
+		// only from tryParseLine, the quote was opened in the last argument of the line
+		UNTERMINATED_QUOTE
+	}
+}
@@ -0,0 +1,33 @@
+package net.callisto.argparse;
+
+import jdk.jfr.*;
+
+// the duration of the event is the whole parse
+@Name("net.callisto.argparse.Parse")
+@Label("Parse")
+@Category("JavArgparse")
+@StackTrace(false)
+final class ParseEvent extends Event {
+	// isEnabled() on the type, so checking doesn't create an event
+	static final EventType TYPE = EventType.getEventType(ParseEvent.class);
+	
+	@Label("Target Class")
+	Class<?> targetClass;
+	
+	@Label("Tokens")
+	int tokens;
+	
+	@Label("Conversions")
+	int conversions;
+	
+	@Label("Errors")
+	int errors;
+	
+	@Label("Conversion Duration")
+	@Timespan
+	long conversionDuration;
+	
+	@Label("Verify Duration")
+	@Timespan
+	long verifyDuration;
+}
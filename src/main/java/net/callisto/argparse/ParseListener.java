@@ -0,0 +1,13 @@
+package net.callisto.argparse;
+
+// nothing is measured while a parser has no listener
+public interface ParseListener {
+	// called once per parse, also if it failed
+	default void parsed(final ParseMetrics metrics) {
+	}
+	
+	// called for every converted value, nanos includes setting the field
+	// type is what the value is converted to, e.g. int for an int[] APPEND argument or Path for a Lazy<Path>
+	default void converted(final Class<?> type, final long nanos, final boolean failed) {
+	}
+}
@@ -0,0 +1,14 @@
+package net.callisto.argparse;
+
+// argumentNanos covers looking up and converting the arguments, conversionNanos is the part of it spent converting
+// errors is the number of collected errors, or 1 if the parse threw
+public record ParseMetrics(Class<?> targetClass, int tokens, int conversions, int errors, long argumentNanos,
+                           long conversionNanos, long verifyNanos) {
+	public long lookupNanos() {
+		return this.argumentNanos - this.conversionNanos;
+	}
+	
+	public long totalNanos() {
+		return this.argumentNanos + this.verifyNanos;
+	}
+}
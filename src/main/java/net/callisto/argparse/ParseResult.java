@@ -0,0 +1,12 @@
+package net.callisto.argparse;
+
+import java.util.*;
+
+public sealed interface ParseResult<T> {
+	record Success<T>(T value) implements ParseResult<T> {
+	}
+	
+	// contains every error of the parse, in the order they were found
+	record Failure<T>(List<ParseError> errors) implements ParseResult<T> {
+	}
+}
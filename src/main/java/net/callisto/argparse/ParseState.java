@@ -0,0 +1,162 @@
+package net.callisto.argparse;
+
+import java.util.*;
+import java.util.function.*;
+
+public final class ParseState<T> {
+	private final ArgumentSchema<T> schema;
+	// the target, or the values its constructor is called with once all arguments are handled
+	private final Object            receiver;
+	private       T                 target;
+	
+	private final BitSet usedOptions;
+	private final int[]  counters;
+	private       int    positionalIndex = 0;
+	
+	// receives the positionals beyond the declared ones, null if those are an error
+	private final Consumer<String> rest;
+	
+	// only created once an APPEND argument is used
+	private Accumulator[] accumulators;
+	
+	// null if the first error is thrown instead
+	private final List<ParseError> errors;
+	private       int              position = -1;
+	
+	// only counted while a listener or a recording is measuring the parse
+	private boolean measured        = false;
+	private int     tokens          = 0;
+	private int     conversions     = 0;
+	private long    conversionNanos = 0;
+	
+	ParseState(final ArgumentSchema<T> schema) {
+		this(schema, null, false);
+	}
+	
+	ParseState(final ArgumentSchema<T> schema, final Consumer<String> rest, final boolean collectErrors) {
+		this.schema      = schema;
+		this.target      = schema.constructed() ? null : schema.newInstance();
+		this.receiver    = schema.constructed() ? schema.newValues() : this.target;
+		this.usedOptions = new BitSet(schema.relativeArguments().size());
+		this.counters    = new int[schema.relativeArguments().size()];
+		this.rest        = rest;
+		this.errors      = collectErrors ? new ArrayList<>() : null;
+	}
+	
+	// a constructed target is only created when it is first requested
+	public T target() {
+		if (this.target == null) {
+			this.target = this.schema.construct((Object[]) this.receiver);
+		}
+		
+		return this.target;
+	}
+	
+	// where the argument values are written to
+	Object receiver() {
+		return this.receiver;
+	}
+	
+	boolean isUsed(final ArgumentInfo argument) {
+		return this.usedOptions.get(argument.index());
+	}
+	
+	void use(final ArgumentInfo argument) {
+		this.usedOptions.set(argument.index());
+	}
+	
+	int count(final ArgumentInfo argument) {
+		return this.counters[argument.index()];
+	}
+	
+	void increment(final ArgumentInfo argument) {
+		this.counters[argument.index()] += 1;
+	}
+	
+	int positionalIndex() {
+		return this.positionalIndex;
+	}
+	
+	int nextPositional() {
+		return this.positionalIndex++;
+	}
+	
+	Consumer<String> rest() {
+		return this.rest;
+	}
+	
+	// the index of the argument that is handled right now
+	void position(final int position) {
+		this.position = position;
+	}
+	
+	int position() {
+		return this.position;
+	}
+	
+	void read(final int count) {
+		this.tokens += count;
+	}
+	
+	int tokens() {
+		return this.tokens;
+	}
+	
+	void measure() {
+		this.measured = true;
+	}
+	
+	boolean measured() {
+		return this.measured;
+	}
+	
+	void converted(final long nanos) {
+		this.conversions += 1;
+		this.conversionNanos += nanos;
+	}
+	
+	int conversions() {
+		return this.conversions;
+	}
+	
+	long conversionNanos() {
+		return this.conversionNanos;
+	}
+	
+	// exceptions that are only collected don't need a stack trace
+	boolean stackTraces() {
+		return this.errors == null;
+	}
+	
+	List<ParseError> errors() {
+		return this.errors;
+	}
+	
+	// throws the exception, unless the errors are collected
+	void fail(final ParseError.Code code, final String argument, final RuntimeException exception) {
+		if (this.errors == null) {
+			throw exception;
+		}
+		
+		this.errors.add(new ParseError(code, this.position, argument, exception.getMessage()));
+	}
+	
+	Accumulator accumulator(final ArgumentInfo argument) {
+		return this.accumulators == null ? null : this.accumulators[argument.index()];
+	}
+	
+	@SuppressWarnings("unchecked")
+	<A extends Accumulator> A accumulator(final ArgumentInfo argument, final Supplier<A> factory) {
+		if (this.accumulators == null) {
+			this.accumulators = new Accumulator[this.counters.length];
+		}
+		
+		Accumulator accumulator = this.accumulators[argument.index()];
+		if (accumulator == null) {
+			accumulator = factory.get();
+			this.accumulators[argument.index()] = accumulator;
+		}
+		
+		return (A) accumulator;
+	}
+}
@@ -0,0 +1,5 @@
+package net.callisto.argparse;
+
+// the arguments are an instance of the class registered for the subcommand
+public record ParsedSubcommand(String name, Object arguments) {
+}
@@ -0,0 +1,138 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.exceptions.*;
+import net.callisto.argparse.functions.*;
+
+import java.util.function.*;
+
+// one typed converter per primitive, so values go from the string straight into the field without boxing
+// converters may be replaced while other threads parse, so they are volatile
+final class PrimitiveConverters {
+	private volatile ToBooleanFunction<String> booleanConverter = Boolean::parseBoolean;
+	private volatile ToByteFunction<String>    byteConverter    = Byte::parseByte;
+	private volatile ToShortFunction<String>   shortConverter   = Short::parseShort;
+	private volatile ToCharFunction<String>    charConverter    = PrimitiveConverters::parseChar;
+	private volatile ToIntFunction<String>     intConverter     = Integer::parseInt;
+	private volatile ToLongFunction<String>    longConverter    = Long::parseLong;
+	private volatile ToFloatFunction<String>   floatConverter   = Float::parseFloat;
+	private volatile ToDoubleFunction<String>  doubleConverter  = Double::parseDouble;
+	
+	static char parseChar(final String value) {
+		if (value.length() != 1) {
+			throw new ImpossibleConversion(value, char.class);
+		}
+		
+		return value.charAt(0);
+	}
+	
+	void registerBooleanConverter(final ToBooleanFunction<String> converter) {
+		this.booleanConverter = converter;
+	}
+	
+	void registerByteConverter(final ToByteFunction<String> converter) {
+		this.byteConverter = converter;
+	}
+	
+	void registerShortConverter(final ToShortFunction<String> converter) {
+		this.shortConverter = converter;
+	}
+	
+	void registerCharConverter(final ToCharFunction<String> converter) {
+		this.charConverter = converter;
+	}
+	
+	void registerIntConverter(final ToIntFunction<String> converter) {
+		this.intConverter = converter;
+	}
+	
+	void registerLongConverter(final ToLongFunction<String> converter) {
+		this.longConverter = converter;
+	}
+	
+	void registerFloatConverter(final ToFloatFunction<String> converter) {
+		this.floatConverter = converter;
+	}
+	
+	void registerDoubleConverter(final ToDoubleFunction<String> converter) {
+		this.doubleConverter = converter;
+	}
+	
+	// a boxing converter registered for a primitive class replaces the typed one
+	void registerBoxed(final Class<?> type, final Function<String, ?> function) {
+		if (type == boolean.class) {
+			this.booleanConverter = value -> (Boolean) function.apply(value);
+		} else if (type == byte.class) {
+			this.byteConverter = value -> (Byte) function.apply(value);
+		} else if (type == short.class) {
+			this.shortConverter = value -> (Short) function.apply(value);
+		} else if (type == char.class) {
+			this.charConverter = value -> (Character) function.apply(value);
+		} else if (type == int.class) {
+			this.intConverter = value -> (Integer) function.apply(value);
+		} else if (type == long.class) {
+			this.longConverter = value -> (Long) function.apply(value);
+		} else if (type == float.class) {
+			this.floatConverter = value -> (Float) function.apply(value);
+		} else if (type == double.class) {
+			this.doubleConverter = value -> (Double) function.apply(value);
+		} else {
+			throw new IllegalArgumentException(type + " is not a primitive type");
+		}
+	}
+	
+	int toInt(final String value) {
+		return this.intConverter.applyAsInt(value);
+	}
+	
+	long toLong(final String value) {
+		return this.longConverter.applyAsLong(value);
+	}
+	
+	double toDouble(final String value) {
+		return this.doubleConverter.applyAsDouble(value);
+	}
+	
+	void write(final ArgumentInfo argument, final Object target, final Class<?> type, final String value) {
+		if (type == int.class) {
+			argument.setInt(target, this.intConverter.applyAsInt(value));
+		} else if (type == long.class) {
+			argument.setLong(target, this.longConverter.applyAsLong(value));
+		} else if (type == double.class) {
+			argument.setDouble(target, this.doubleConverter.applyAsDouble(value));
+		} else if (type == boolean.class) {
+			argument.setBoolean(target, this.booleanConverter.applyAsBoolean(value));
+		} else if (type == float.class) {
+			argument.setFloat(target, this.floatConverter.applyAsFloat(value));
+		} else if (type == short.class) {
+			argument.setShort(target, this.shortConverter.applyAsShort(value));
+		} else if (type == byte.class) {
+			argument.setByte(target, this.byteConverter.applyAsByte(value));
+		} else if (type == char.class) {
+			argument.setChar(target, this.charConverter.applyAsChar(value));
+		} else {
+			throw new ImpossibleConversion(value, type);
+		}
+	}
+	
+	Object convert(final String value, final Class<?> type) {
+		if (type == int.class) {
+			return this.intConverter.applyAsInt(value);
+		} else if (type == long.class) {
+			return this.longConverter.applyAsLong(value);
+		} else if (type == double.class) {
+			return this.doubleConverter.applyAsDouble(value);
+		} else if (type == boolean.class) {
+			return this.booleanConverter.applyAsBoolean(value);
+		} else if (type == float.class) {
+			return this.floatConverter.applyAsFloat(value);
+		} else if (type == short.class) {
+			return this.shortConverter.applyAsShort(value);
+		} else if (type == byte.class) {
+			return this.byteConverter.applyAsByte(value);
+		} else if (type == char.class) {
+			return this.charConverter.applyAsChar(value);
+		}
+		
+		throw new ImpossibleConversion(value, type);
+	}
+}
@@ -0,0 +1,16 @@
+package net.callisto.argparse;
+
+import jdk.jfr.*;
+
+// schemas are shared between parsers, so compiling them is only visible as an event
+@Name("net.callisto.argparse.Schema")
+@Label("Schema Compilation")
+@Category("JavArgparse")
+@StackTrace(false)
+final class SchemaEvent extends Event {
+	@Label("Target Class")
+	Class<?> targetClass;
+	
+	@Label("Arguments")
+	int arguments;
+}
@@ -0,0 +1,75 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.exceptions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+// the first argument selects the subcommand, the rest is parsed into its class
+// a class is only reflected once its subcommand is used, so registering many of them costs next to nothing
+public class SubcommandParser {
+	private final Map<String, Class<?>>              subcommands         = new ConcurrentHashMap<>();
+	private final Map<String, ArgumentParser<?>>     parsers             = new ConcurrentHashMap<>();
+	private final Map<Class<?>, Function<String, ?>> conversionFunctions = new ConcurrentHashMap<>();
+	
+	public <T> void registerSubcommand(final String name, final Class<T> targetClass) {
+		if (this.subcommands.putIfAbsent(name, targetClass) != null) {
+			throw new DuplicateArgument(name);
+		}
+	}
+	
+	// applies to the parsers of all subcommands, including the ones that were already used
+	public <X> void registerTypeConverter(final Class<X> target, final Function<String, X> function) {
+		// parsers are only created while holding the lock, so none of them can miss the converter
+		synchronized (this.parsers) {
+			this.conversionFunctions.put(target, function);
+			
+			for (ArgumentParser<?> parser : this.parsers.values()) {
+				parser.registerTypeConverter(target, function);
+			}
+		}
+	}
+	
+	public Set<String> subcommands() {
+		return Collections.unmodifiableSet(this.subcommands.keySet());
+	}
+	
+	public ParsedSubcommand parseArgs(final String[] arguments) {
+		if (arguments.length == 0) {
+			throw new NotEnoughArguments();
+		}
+		
+		final String      name   = arguments[0];
+		ArgumentParser<?> parser = this.parsers.get(name);
+		if (parser == null) {
+			synchronized (this.parsers) {
+				parser = this.parsers.computeIfAbsent(name, this::createParser);
+			}
+		}
+		
+		return new ParsedSubcommand(name, parser.parseArgs(Arrays.copyOfRange(arguments, 1, arguments.length)));
+	}
+	
+	private ArgumentParser<?> createParser(final String name) {
+		final Class<?> targetClass = this.subcommands.get(name);
+		
+		if (targetClass == null) {
+			throw new UnknownSubcommand(name);
+		}
+		
+		return createParser(targetClass);
+	}
+	
+	@SuppressWarnings("unchecked")
+	private <T> ArgumentParser<T> createParser(final Class<T> targetClass) {
+		final ArgumentParser<T> parser = new ArgumentParser<>(targetClass);
+		
+		this.conversionFunctions.forEach((type, function) -> parser.registerTypeConverter(
+			(Class<Object>) type,
+			(Function<String, Object>) function
+		));
+		
+		return parser;
+	}
+}
@@ -0,0 +1,216 @@
+package net.callisto.argparse;
+
+import java.util.*;
+
+// the arguments of one command line, classified against a schema
+// every token is a range of one argument: --name=value is a LONG token followed by a VALUE token in the same argument
+// the tokens are kept in parallel arrays, so tokenizing creates no object per token
+// ArgumentParser.parseArgs(TokenStream) parses it again without looking the options up, so it may be cached and replayed
+public final class TokenStream {
+	public enum Kind {
+		// --name or --name=value
+		LONG,
+		// -n
+		SHORT,
+		// -xzf, followed by a SHORT token per character and possibly the VALUE attached to the last of them
+		CLUSTER,
+		// the value of the option in front of it, inline or in the next argument
+		VALUE,
+		POSITIONAL,
+		// --, every argument after it is a positional
+		SEPARATOR
+	}
+	
+	private static final Kind[] KINDS = Kind.values();
+	
+	private final ArgumentSchema<?> schema;
+	private final boolean           abbreviations;
+	private final String[]          arguments;
+	
+	private int[] kinds;
+	// the index of the option in schema.relativeArguments() or of the positional in schema.positionalArguments(),
+	// -1 for unknown options, positionals beyond the declared ones and separators
+	private int[] options;
+	private int[] argumentIndexes;
+	private int[] starts;
+	private int[] ends;
+	private int   size = 0;
+	
+	private TokenStream(final ArgumentSchema<?> schema, final boolean abbreviations, final String[] arguments) {
+		this.schema        = schema;
+		this.abbreviations = abbreviations;
+		this.arguments     = arguments;
+		
+		// most arguments are a single token, clusters and inline values grow the arrays
+		final int capacity = Math.max(8, arguments.length + (arguments.length >> 1));
+		this.kinds           = new int[capacity];
+		this.options         = new int[capacity];
+		this.argumentIndexes = new int[capacity];
+		this.starts          = new int[capacity];
+		this.ends            = new int[capacity];
+	}
+	
+	// mirrors ArgumentParser.handleArguments, so parsing the tokens gives the same result as parsing the arguments
+	static TokenStream tokenize(final ArgumentSchema<?> schema, final String[] arguments, final boolean abbreviations) {
+		final TokenStream tokens = new TokenStream(schema, abbreviations, arguments.clone());
+		tokens.tokenize();
+		return tokens;
+	}
+	
+	private void tokenize() {
+		final int positionals = this.schema.positionalArguments().size();
+		
+		boolean separated  = false;
+		int     positional = 0;
+		
+		int i = 0;
+		while (i < this.arguments.length) {
+			final String argument = this.arguments[i];
+			
+			if (!separated && "--".equals(argument)) {
+				add(Kind.SEPARATOR, -1, i, 0, 2);
+				separated = true;
+				i += 1;
+			} else if (separated || argument.isEmpty() || argument.charAt(0) != '-') {
+				add(Kind.POSITIONAL, positional < positionals ? positional++ : -1, i, 0, argument.length());
+				i += 1;
+			} else if (argument.startsWith(ArgumentParser.LONG_ARGUMENT_PREFIX)) {
+				i += tokenizeLong(argument, i);
+			} else if (argument.length() <= 2) {
+				final ArgumentInfo option = argument.length() == 2 ? this.schema.findShortArgument(argument.charAt(1)) : null;
+				
+				add(Kind.SHORT, index(option), i, 1, argument.length());
+				i += addNextValue(option, i);
+			} else {
+				i += tokenizeCluster(argument, i);
+			}
+		}
+	}
+	
+	private int tokenizeLong(final String argument, final int i) {
+		final int equals = argument.indexOf('=', 2);
+		final int end    = equals < 0 ? argument.length() : equals;
+		
+		ArgumentInfo option = this.schema.findLongArgument(argument, 2, end);
+		if (option == null && this.abbreviations) {
+			option = this.schema.trie().find(argument, 2, end);
+		}
+		
+		add(Kind.LONG, index(option), i, 2, end);
+		
+		if (equals >= 0) {
+			add(Kind.VALUE, index(option), i, equals + 1, argument.length());
+			return 1;
+		}
+		
+		return addNextValue(option, i);
+	}
+	
+	private int tokenizeCluster(final String argument, final int i) {
+		add(Kind.CLUSTER, -1, i, 1, argument.length());
+		
+		for (int c = 1; c < argument.length(); c++) {
+			final ArgumentInfo option = this.schema.findShortArgument(argument.charAt(c));
+			add(Kind.SHORT, index(option), i, c, c + 1);
+			
+			if (!takesValue(option)) {
+				continue;
+			}
+			
+			// e.g. -p8080 or -vofile, the rest of the cluster is the value
+			if (c + 1 < argument.length()) {
+				add(Kind.VALUE, option.index(), i, c + 1, argument.length());
+				return 1;
+			}
+			
+			return addNextValue(option, i);
+		}
+		
+		return 1;
+	}
+	
+	// the number of arguments the option at i uses
+	private int addNextValue(final ArgumentInfo option, final int i) {
+		if (!takesValue(option) || i + 1 == this.arguments.length) {
+			return 1;
+		}
+		
+		add(Kind.VALUE, option.index(), i + 1, 0, this.arguments[i + 1].length());
+		return 2;
+	}
+	
+	private static boolean takesValue(final ArgumentInfo option) {
+		return option != null && (option.getArgumentType() == ArgumentType.DEFAULT || option.getArgumentType() == ArgumentType.APPEND);
+	}
+	
+	private static int index(final ArgumentInfo option) {
+		return option == null ? -1 : option.index();
+	}
+	
+	private void add(final Kind kind, final int option, final int argument, final int start, final int end) {
+		if (this.size == this.kinds.length) {
+			final int capacity = this.size << 1;
+			this.kinds           = Arrays.copyOf(this.kinds, capacity);
+			this.options         = Arrays.copyOf(this.options, capacity);
+			this.argumentIndexes = Arrays.copyOf(this.argumentIndexes, capacity);
+			this.starts          = Arrays.copyOf(this.starts, capacity);
+			this.ends            = Arrays.copyOf(this.ends, capacity);
+		}
+		
+		this.kinds[this.size]           = kind.ordinal();
+		this.options[this.size]         = option;
+		this.argumentIndexes[this.size] = argument;
+		this.starts[this.size]          = start;
+		this.ends[this.size]            = end;
+		this.size++;
+	}
+	
+	// true if the tokens can be parsed by a parser with this schema and abbreviation setting as they are
+	boolean matches(final ArgumentSchema<?> schema, final boolean abbreviations) {
+		return this.schema == schema && this.abbreviations == abbreviations;
+	}
+	
+	// the arguments themselves, not a copy
+	String[] sourceArguments() {
+		return this.arguments;
+	}
+	
+	public ArgumentSchema<?> schema() {
+		return this.schema;
+	}
+	
+	public String[] arguments() {
+		return this.arguments.clone();
+	}
+	
+	public int size() {
+		return this.size;
+	}
+	
+	public Kind kind(final int token) {
+		return KINDS[this.kinds[Objects.checkIndex(token, this.size)]];
+	}
+	
+	public int option(final int token) {
+		return this.options[Objects.checkIndex(token, this.size)];
+	}
+	
+	// the index of the argument the token is part of
+	public int argument(final int token) {
+		return this.argumentIndexes[Objects.checkIndex(token, this.size)];
+	}
+	
+	// the range of the token in its argument, e.g. only the name of --name=value
+	public int start(final int token) {
+		return this.starts[Objects.checkIndex(token, this.size)];
+	}
+	
+	public int end(final int token) {
+		return this.ends[Objects.checkIndex(token, this.size)];
+	}
+	
+	// copies the range out of the argument
+	public String text(final int token) {
+		return this.arguments[argument(token)].substring(start(token), end(token));
+	}
+}
@@ -0,0 +1,13 @@
+package net.callisto.argparse.exceptions;
+
+import java.util.*;
+
+public class AmbiguousArgument extends ArgumentException {
+	public AmbiguousArgument(final String argument, final List<String> candidates) {
+		this(argument, candidates, true);
+	}
+	
+	public AmbiguousArgument(final String argument, final List<String> candidates, final boolean stackTrace) {
+		super(String.format("Ambiguous argument: %s could be %s", argument, String.join(", ", candidates)), stackTrace);
+	}
+}
@@ -0,0 +1,9 @@
+package net.callisto.argparse.exceptions;
+
+// base of the exceptions for invalid arguments
+// they can skip capturing a stack trace, which is most of their cost, when they are only used for their message
+public abstract class ArgumentException extends RuntimeException {
+	protected ArgumentException(final String message, final boolean stackTrace) {
+		super(message, null, true, stackTrace);
+	}
+}
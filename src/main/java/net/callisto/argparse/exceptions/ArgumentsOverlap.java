@@ -1,7 +1,11 @@
 package net.callisto.argparse.exceptions;
 
-public class ArgumentsOverlap extends RuntimeException {
+public class ArgumentsOverlap extends ArgumentException {
 	public ArgumentsOverlap() {
-		super("Invalid combination of arguments: multiple arguments requested the same argument");
+		this(true);
+	}
+	
+	public ArgumentsOverlap(final boolean stackTrace) {
+		super("Invalid combination of arguments: multiple arguments requested the same argument", stackTrace);
 	}
 }
@@ -1,7 +1,11 @@
 package net.callisto.argparse.exceptions;
 
-public class DuplicateArgument extends RuntimeException {
+public class DuplicateArgument extends ArgumentException {
 	public DuplicateArgument(final String entry) {
-		super(String.format("more than one instance of argument %s!", entry));
+		this(entry, true);
+	}
+	
+	public DuplicateArgument(final String entry, final boolean stackTrace) {
+		super(String.format("more than one instance of argument %s!", entry), stackTrace);
 	}
 }
@@ -1,7 +1,11 @@
 package net.callisto.argparse.exceptions;
 
-public class ImpossibleConversion extends RuntimeException {
+public class ImpossibleConversion extends ArgumentException {
 	public ImpossibleConversion(final String value, final Class<?> target) {
-		super(String.format("Cannot convert '%s' into '%s'", value, target));
+		this(value, target, true);
+	}
+	
+	public ImpossibleConversion(final String value, final Class<?> target, final boolean stackTrace) {
+		super(String.format("Cannot convert '%s' into '%s'", value, target), stackTrace);
 	}
 }
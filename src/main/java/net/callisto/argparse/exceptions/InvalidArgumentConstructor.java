@@ -0,0 +1,10 @@
+package net.callisto.argparse.exceptions;
+
+public class InvalidArgumentConstructor extends RuntimeException {
+	public <T> InvalidArgumentConstructor(final Class<T> targetClass) {
+		super(String.format(
+			"The class '%s' needs exactly one @Argument constructor with a parameter named like each @Argument field, compiled with -parameters",
+			targetClass.getName()
+		));
+	}
+}
@@ -0,0 +1,22 @@
+package net.callisto.argparse.exceptions;
+
+// thrown when a lazily converted value is first read, long after parsing succeeded
+public class LazyConversionFailed extends RuntimeException {
+	private final String value;
+	private final int    position;
+	
+	public LazyConversionFailed(final String value, final int position, final Throwable cause) {
+		super(String.format("Cannot convert '%s' given at argument %d: %s", value, position, cause.getMessage()), cause);
+		this.value    = value;
+		this.position = position;
+	}
+	
+	public String getValue() {
+		return this.value;
+	}
+	
+	// the index of the argument the value was given at, like ParseError.position
+	public int getPosition() {
+		return this.position;
+	}
+}
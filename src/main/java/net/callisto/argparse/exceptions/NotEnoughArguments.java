@@ -1,7 +1,11 @@
 package net.callisto.argparse.exceptions;
 
-public class NotEnoughArguments extends RuntimeException {
+public class NotEnoughArguments extends ArgumentException {
 	public NotEnoughArguments() {
-		super("Not enough arguments provided!");
+		this(true);
+	}
+	
+	public NotEnoughArguments(final boolean stackTrace) {
+		super("Not enough arguments provided!", stackTrace);
 	}
 }
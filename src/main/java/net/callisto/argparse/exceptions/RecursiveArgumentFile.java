@@ -0,0 +1,9 @@
+package net.callisto.argparse.exceptions;
+
+import java.nio.file.*;
+
+public class RecursiveArgumentFile extends RuntimeException {
+	public RecursiveArgumentFile(final Path file) {
+		super(String.format("The argument file '%s' includes itself", file));
+	}
+}
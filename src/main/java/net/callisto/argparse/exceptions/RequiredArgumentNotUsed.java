@@ -1,7 +1,11 @@
 package net.callisto.argparse.exceptions;
 
-public class RequiredArgumentNotUsed extends RuntimeException {
+public class RequiredArgumentNotUsed extends ArgumentException {
 	public RequiredArgumentNotUsed(final String argumentName) {
-		super(String.format("The required argument '%s' has not been given", argumentName));
+		this(argumentName, true);
+	}
+	
+	public RequiredArgumentNotUsed(final String argumentName, final boolean stackTrace) {
+		super(String.format("The required argument '%s' has not been given", argumentName), stackTrace);
 	}
 }
@@ -1,7 +1,11 @@
 package net.callisto.argparse.exceptions;
 
-public class TooManyPositionals extends RuntimeException {
+public class TooManyPositionals extends ArgumentException {
 	public TooManyPositionals() {
-		super("Too many positional arguments given!");
+		this(true);
+	}
+	
+	public TooManyPositionals(final boolean stackTrace) {
+		super("Too many positional arguments given!", stackTrace);
 	}
 }
@@ -0,0 +1,11 @@
+package net.callisto.argparse.exceptions;
+
+public class UnexpectedValue extends ArgumentException {
+	public UnexpectedValue(final String entry) {
+		this(entry, true);
+	}
+	
+	public UnexpectedValue(final String entry, final boolean stackTrace) {
+		super(String.format("argument %s does not take a value!", entry), stackTrace);
+	}
+}
@@ -1,7 +1,30 @@
 package net.callisto.argparse.exceptions;
 
-public class UnknownArgument extends RuntimeException {
+import java.util.*;
+
+public class UnknownArgument extends ArgumentException {
+	private final List<String> suggestions;
+	
 	public UnknownArgument(final String argument) {
-		super(String.format("Unknown argument: %s", argument));
+		this(argument, true);
+	}
+	
+	public UnknownArgument(final String argument, final boolean stackTrace) {
+		this(argument, List.of(), stackTrace);
+	}
+	
+	public UnknownArgument(final String argument, final List<String> suggestions, final boolean stackTrace) {
+		super(
+			suggestions.isEmpty()
+				? String.format("Unknown argument: %s", argument)
+				: String.format("Unknown argument: %s, did you mean %s?", argument, String.join(", ", suggestions)),
+			stackTrace
+		);
+		this.suggestions = List.copyOf(suggestions);
+	}
+	
+	// known arguments similar to the unknown one, empty unless suggestions are enabled
+	public List<String> getSuggestions() {
+		return this.suggestions;
 	}
 }
@@ -0,0 +1,7 @@
+package net.callisto.argparse.exceptions;
+
+public class UnknownSubcommand extends RuntimeException {
+	public UnknownSubcommand(final String subcommand) {
+		super(String.format("Unknown subcommand: %s", subcommand));
+	}
+}
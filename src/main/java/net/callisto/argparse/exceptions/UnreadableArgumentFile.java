@@ -0,0 +1,7 @@
+package net.callisto.argparse.exceptions;
+
+public class UnreadableArgumentFile extends RuntimeException {
+	public UnreadableArgumentFile(final String file, final Throwable cause) {
+		super(String.format("Cannot read the argument file '%s'", file), cause);
+	}
+}
@@ -0,0 +1,15 @@
+package net.callisto.argparse.exceptions;
+
+public class UnterminatedQuote extends RuntimeException {
+	private final String token;
+	
+	public UnterminatedQuote(final String token) {
+		super(String.format("Missing closing quote after: %s", token));
+		this.token = token;
+	}
+	
+	// the argument up to the end of the input, without the opening quote
+	public String getToken() {
+		return this.token;
+	}
+}
@@ -0,0 +1,6 @@
+package net.callisto.argparse.functions;
+
+@FunctionalInterface
+public interface ToBooleanFunction<T> {
+	boolean applyAsBoolean(T value);
+}
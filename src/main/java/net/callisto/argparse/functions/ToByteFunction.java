@@ -0,0 +1,6 @@
+package net.callisto.argparse.functions;
+
+@FunctionalInterface
+public interface ToByteFunction<T> {
+	byte applyAsByte(T value);
+}
@@ -0,0 +1,6 @@
+package net.callisto.argparse.functions;
+
+@FunctionalInterface
+public interface ToCharFunction<T> {
+	char applyAsChar(T value);
+}
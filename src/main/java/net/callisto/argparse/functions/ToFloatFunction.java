@@ -0,0 +1,6 @@
+package net.callisto.argparse.functions;
+
+@FunctionalInterface
+public interface ToFloatFunction<T> {
+	float applyAsFloat(T value);
+}
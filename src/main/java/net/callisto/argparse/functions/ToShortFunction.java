@@ -0,0 +1,6 @@
+package net.callisto.argparse.functions;
+
+@FunctionalInterface
+public interface ToShortFunction<T> {
+	short applyAsShort(T value);
+}
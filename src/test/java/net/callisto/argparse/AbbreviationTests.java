@@ -0,0 +1,122 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.classes.*;
+import net.callisto.argparse.exceptions.*;
+import org.junit.jupiter.api.*;
+
+import java.lang.reflect.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AbbreviationTests {
+	@Test
+	void testAbbreviations() {
+		final ArgumentParser<LookupArgs> parser = new ArgumentParser<>(LookupArgs.class);
+		
+		assertThrows(UnknownArgument.class, () -> parser.parseArgs(new String[] { "--alpha-beta-g", "c" }));
+		
+		parser.enableAbbreviations();
+		
+		assertEquals("c", parser.parseArgs(new String[] { "--alpha-beta-g", "c" }).alphaBetaGamma);
+		// exact names win over longer ones starting with them
+		assertEquals("a", parser.parseArgs(new String[] { "--alpha", "a" }).alpha);
+		assertEquals("b", parser.parseArgs(new String[] { "--alpha-beta", "b" }).alphaBeta);
+		assertTrue(parser.parseArgs(new String[] { "--u" }).umlaut);
+		
+		final AmbiguousArgument ambiguous = assertThrows(
+			AmbiguousArgument.class,
+			() -> parser.parseArgs(new String[] { "--alpha-b", "b" })
+		);
+		assertEquals("Ambiguous argument: --alpha-b could be --alpha-beta, --alpha-beta-gamma", ambiguous.getMessage());
+		assertThrows(UnknownArgument.class, () -> parser.parseArgs(new String[] { "--beta", "b" }));
+		
+		final ParseResult<LookupArgs> result = parser.tryParse(new String[] { "--al", "a" });
+		assertInstanceOf(ParseResult.Failure.class, result);
+		assertEquals(ParseError.Code.AMBIGUOUS_ARGUMENT, ((ParseResult.Failure<LookupArgs>) result).errors().get(0).code());
+	}
+	
+	@Test
+	void testSuggestions() {
+		final ArgumentParser<LookupArgs> parser = new ArgumentParser<>(LookupArgs.class);
+		
+		assertEquals(List.of(), assertThrows(UnknownArgument.class, () -> parser.parseArgs(new String[] { "--alhpa" })).getSuggestions());
+		
+		parser.enableSuggestions();
+		
+		final UnknownArgument unknown = assertThrows(UnknownArgument.class, () -> parser.parseArgs(new String[] { "--alhpa" }));
+		assertEquals(List.of("--alpha"), unknown.getSuggestions());
+		assertEquals("Unknown argument: --alhpa, did you mean --alpha?", unknown.getMessage());
+		
+		assertEquals(
+			List.of("--alpha-beta"),
+			assertThrows(UnknownArgument.class, () -> parser.parseArgs(new String[] { "--alpha-bet" })).getSuggestions()
+		);
+		assertEquals(List.of(), assertThrows(UnknownArgument.class, () -> parser.parseArgs(new String[] { "--xyz" })).getSuggestions());
+	}
+	
+	@Test
+	void testManyNames() throws NoSuchFieldException {
+		final Random      random = new Random(42);
+		final Set<String> unique = new LinkedHashSet<>();
+		for (int i = 0; i < 2_500; i++) {
+			unique.add("option-" + i);
+			unique.add(randomName(random));
+		}
+		
+		final Field              field     = LookupArgs.class.getField("alpha");
+		final List<String>       names     = List.copyOf(unique);
+		final List<ArgumentInfo> arguments = new ArrayList<>();
+		for (String name : names) {
+			arguments.add(new ArgumentInfo(arguments.size(), field, -1, false, true, name, null, ArgumentType.DEFAULT));
+		}
+		final OptionTrie trie = new OptionTrie(arguments);
+		
+		for (int i = 0; i < 500; i++) {
+			final StringBuilder typo = new StringBuilder(names.get(random.nextInt(names.size())));
+			for (int edit = random.nextInt(4); edit > 0 && typo.length() > 1; edit--) {
+				final int position = random.nextInt(typo.length());
+				switch (random.nextInt(3)) {
+					case 0 -> typo.setCharAt(position, (char) ('a' + random.nextInt(26)));
+					case 1 -> typo.insert(position, (char) ('a' + random.nextInt(26)));
+					default -> typo.deleteCharAt(position);
+				}
+			}
+			final String word = typo.toString();
+			
+			// the trie finds the same names as comparing against all of them
+			for (int maxDistance = 1; maxDistance <= 2; maxDistance++) {
+				final int          limit    = maxDistance;
+				final List<String> expected = names.stream()
+					.filter(name -> distance(name, word) <= limit)
+					.sorted(Comparator.comparingInt((String name) -> distance(name, word)).thenComparing(Comparator.naturalOrder()))
+					.limit(3)
+					.toList();
+				assertEquals(expected, trie.similar(word, maxDistance, 3), word);
+			}
+		}
+	}
+	
+	private static int distance(final String a, final String b) {
+		final int[][] distances = new int[a.length() + 1][b.length() + 1];
+		for (int i = 0; i <= a.length(); i++) {
+			for (int j = 0; j <= b.length(); j++) {
+				if (i == 0 || j == 0) {
+					distances[i][j] = i + j;
+				} else {
+					final int substitution = distances[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+					distances[i][j] = Math.min(substitution, Math.min(distances[i - 1][j], distances[i][j - 1]) + 1);
+				}
+			}
+		}
+		return distances[a.length()][b.length()];
+	}
+	
+	private static String randomName(final Random random) {
+		final StringBuilder name = new StringBuilder();
+		for (int i = 1 + random.nextInt(14); i > 0; i--) {
+			name.append(name.length() > 0 && random.nextInt(6) == 0 ? '-' : (char) ('a' + random.nextInt(26)));
+		}
+		return name.toString();
+	}
+}
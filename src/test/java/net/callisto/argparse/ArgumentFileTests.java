@@ -0,0 +1,121 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.classes.*;
+import net.callisto.argparse.exceptions.*;
+import org.junit.jupiter.api.*;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArgumentFileTests {
+	private static Path write(final String content) throws IOException {
+		final Path file = Files.createTempFile("arguments", ".txt");
+		file.toFile().deleteOnExit();
+		return Files.writeString(file, content);
+	}
+	
+	@Test
+	void testArgumentFilesAreExpanded() throws IOException {
+		final Path file = write("-vv --name 'a name'\n-o output\n");
+		
+		final ArgumentParser<ShortClusterArgs> parser = new ArgumentParser<>(ShortClusterArgs.class);
+		
+		// disabled by default
+		assertThrows(TooManyPositionals.class, () -> parser.parseArgs(new String[] { "@" + file }));
+		
+		parser.enableArgumentFiles(false);
+		final ShortClusterArgs values = parser.parseArgs(new String[] { "-q", "@" + file, "-v" });
+		
+		assertEquals(3, values.verbosity);
+		assertTrue(values.quiet);
+		assertEquals("a name", values.name);
+		assertEquals("output", values.output);
+		
+		assertThrows(UnreadableArgumentFile.class, () -> parser.parseArgs(new String[] { "@" + file + ".missing" }));
+		
+		// a lone lead byte of a two byte character is malformed UTF-8
+		final Path malformed = Files.write(Files.createTempFile("arguments", ".txt"), new byte[] { '-', 'v', ' ', (byte) 0xC3 });
+		malformed.toFile().deleteOnExit();
+		final UnreadableArgumentFile unreadable = assertThrows(
+			UnreadableArgumentFile.class,
+			() -> parser.parseArgs(new String[] { "@" + malformed })
+		);
+		assertTrue(unreadable.getMessage().contains(malformed.getFileName().toString()));
+		assertInstanceOf(CharacterCodingException.class, unreadable.getCause());
+	}
+	
+	@Test
+	void testRecursiveArgumentFiles() throws IOException {
+		final Path inner = write("-v");
+		final Path outer = write("-v @" + inner);
+		
+		final ArgumentParser<ShortClusterArgs> parser = new ArgumentParser<>(ShortClusterArgs.class);
+		
+		parser.enableArgumentFiles(false);
+		assertThrows(TooManyPositionals.class, () -> parser.parseArgs(new String[] { "@" + outer }));
+		
+		parser.enableArgumentFiles(true);
+		assertEquals(2, parser.parseArgs(new String[] { "@" + outer }).verbosity);
+		assertEquals(3, parser.parseArgs(new String[] { "@" + outer, "@" + inner }).verbosity);
+		
+		final Path cycle = write("");
+		Files.writeString(cycle, "-v @" + cycle);
+		assertThrows(RecursiveArgumentFile.class, () -> parser.parseArgs(new String[] { "@" + cycle }));
+	}
+	
+	@Test
+	void testWindowBoundaries() throws IOException {
+		// multi byte characters, so some of them are split between two windows
+		final String content = "ä€😀 x".repeat(1000);
+		final Path   file    = write(content);
+		
+		for (long windowSize : new long[] { 16, 17, 18, 19, 4096 }) {
+			final StringBuilder read = new StringBuilder();
+			try (Reader reader = new MappedFileReader(file, windowSize)) {
+				final char[] buffer = new char[7];
+				int length;
+				while ((length = reader.read(buffer, 0, buffer.length)) != -1) {
+					read.append(buffer, 0, length);
+				}
+			}
+			assertEquals(content, read.toString(), "window size " + windowSize);
+		}
+		
+		final Path malformed = Files.write(Files.createTempFile("arguments", ".txt"), new byte[] { 'a', (byte) 0xC3 });
+		malformed.toFile().deleteOnExit();
+		try (Reader reader = new MappedFileReader(malformed)) {
+			assertThrows(CharacterCodingException.class, () -> reader.read(new char[8], 0, 8));
+		}
+		
+		final Path empty = write("");
+		try (Reader reader = new MappedFileReader(empty)) {
+			assertEquals(-1, reader.read(new char[8], 0, 8));
+		}
+	}
+	
+	@Test
+	void testLargeArgumentFile() throws IOException {
+		final int COUNT = 1_000_000;
+		
+		final Path file = Files.createTempFile("arguments", ".txt");
+		file.toFile().deleteOnExit();
+		try (Writer writer = Files.newBufferedWriter(file)) {
+			writer.write("1\n");
+			for (int i = 0; i < COUNT; i++) {
+				writer.write("file-" + i + ".txt\n");
+			}
+		}
+		
+		final ArgumentParser<ConcurrentArgs> parser = new ArgumentParser<>(ConcurrentArgs.class);
+		parser.enableArgumentFiles(false);
+		
+		final long[] rest = new long[1];
+		parser.parseArgs(List.of("@" + file).iterator(), argument -> rest[0]++);
+		
+		assertEquals(COUNT, rest[0]);
+	}
+}
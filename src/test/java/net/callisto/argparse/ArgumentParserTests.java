@@ -6,6 +6,7 @@ import net.callisto.argparse.exceptions.*;
 import org.junit.jupiter.api.*;
 
 import java.io.*;
+import java.lang.management.*;
 import java.nio.file.*;
 import java.util.*;
 
@@ -118,6 +119,77 @@ class ArgumentParserTests {
 		assertThrows(InvalidArgumentCombination.class, () -> new ArgumentParser<>(PositionalAndTrue.class));
 		
 		assertThrows(InvalidArgumentCombination.class, () -> new ArgumentParser<>(OptionalPositional.class));
+		
+		assertThrows(InvalidArgumentCombination.class, () -> new ArgumentParser<>(AppendAndPositional.class));
+	}
+	
+	@Test
+	void testDuplicateNames() {
+		// the positional comes first, so only comparing against earlier relative arguments misses it
+		assertThrows(DuplicateArgument.class, () -> new ArgumentParser<>(DuplicateShortName.class));
+	}
+	
+	@Test
+	void testRecordTarget() {
+		final ArgumentParser<RecordArgs> parser = new ArgumentParser<>(RecordArgs.class);
+		
+		final RecordArgs values = parser.parseArgs(new String[] { "-vv", "server", "-p", "8080", "-t", "a", "-t", "b" });
+		assertEquals(new RecordArgs("server", 8080, 2, false, List.of("a", "b")), values);
+		
+		// unused arguments get the defaults of their types
+		assertEquals(new RecordArgs("server", 0, 0, false, null), parser.parseArgs(new String[] { "server" }));
+		
+		assertThrows(IllegalArgumentException.class, () -> parser.parseArgs(new String[] { "server", "-p", "-1" }));
+		assertInstanceOf(ParseResult.Failure.class, parser.tryParse(new String[] { "server", "-p", "-1" }));
+		assertThrows(NotEnoughArguments.class, () -> parser.parseArgs(new String[] {}));
+	}
+	
+	@Test
+	void testArgumentConstructor() {
+		final ArgumentParser<FinalFieldArgs> parser = new ArgumentParser<>(FinalFieldArgs.class);
+		
+		final FinalFieldArgs values = parser.parseArgs(new String[] { PATH, "-l", "10000000000" });
+		assertEquals(Path.of(PATH), values.input);
+		assertEquals(10000000000L, values.limit);
+		
+		final SwappedConstructorArgs swapped = new ArgumentParser<>(SwappedConstructorArgs.class)
+			.parseArgs(new String[] { "-s", "from", "-t", "to" });
+		assertEquals("from", swapped.source);
+		assertEquals("to", swapped.target);
+		
+		assertThrows(InvalidArgumentConstructor.class, () -> new ArgumentParser<>(MismatchedConstructor.class));
+	}
+	
+	@Test
+	void testAppend() {
+		final ArgumentParser<AppendArgs> parser = new ArgumentParser<>(AppendArgs.class);
+		
+		final AppendArgs values = parser.parseArgs(new String[] {
+			"-n", "1", "--ids", "10000000000", "-n", "2", "-i", "a", "--paths", PATH, "--numbers", "3", "-i", "b", "--weights", "0.5"
+		});
+		
+		assertArrayEquals(new int[] { 1, 2, 3 }, values.numbers);
+		assertArrayEquals(new long[] { 10000000000L }, values.ids);
+		assertArrayEquals(new double[] { 0.5 }, values.weights);
+		assertArrayEquals(new String[] { "a", "b" }, values.include);
+		assertEquals(List.of(Path.of(PATH)), values.paths);
+		
+		final AppendArgs onlyRequired = parser.parseArgs(new String[] { "-n", "1" });
+		assertArrayEquals(new int[] { 1 }, onlyRequired.numbers);
+		assertNull(onlyRequired.include);
+		
+		assertThrows(RequiredArgumentNotUsed.class, () -> parser.parseArgs(new String[] { "-i", "a" }));
+		// the rest of the cluster is the value, even if it starts with a short name
+		assertArrayEquals(new String[] { "n1" }, parser.parseArgs(new String[] { "-n", "1", "-in1" }).include);
+		
+		// more values than the initial capacity of the buffers
+		final String[] many = new String[2_000];
+		for (int i = 0; i < many.length; i += 2) {
+			many[i]     = "-n";
+			many[i + 1] = Integer.toString(i);
+		}
+		assertEquals(1_000, parser.parseArgs(many).numbers.length);
+		assertEquals(1_998, parser.parseArgs(many).numbers[999]);
 	}
 	
 	@Test
@@ -141,6 +213,66 @@ class ArgumentParserTests {
 		}
 	}
 	
+	@Test
+	void testCombinedShortArguments() {
+		final ArgumentParser<ShortClusterArgs> parser = new ArgumentParser<>(ShortClusterArgs.class);
+		
+		assertEquals(10_000, parser.parseArgs(new String[] { "-" + "v".repeat(10_000) }).verbosity);
+		
+		final ShortClusterArgs values = parser.parseArgs(new String[] { "-vqvn", "name", "-o", "output" });
+		assertEquals(2, values.verbosity);
+		assertTrue(values.quiet);
+		assertEquals("name", values.name);
+		assertEquals("output", values.output);
+		
+		// like getopt, an option taking a value ends the cluster
+		assertEquals("value", parser.parseArgs(new String[] { "-ovalue" }).output);
+		assertEquals("file", parser.parseArgs(new String[] { "-ofile" }).output);
+		
+		final ShortClusterArgs attached = parser.parseArgs(new String[] { "-vovalue" });
+		assertEquals(1, attached.verbosity);
+		assertEquals("value", attached.output);
+		
+		final ShortClusterArgs shortNames = parser.parseArgs(new String[] { "-oqv" });
+		assertEquals("qv", shortNames.output);
+		assertFalse(shortNames.quiet);
+		assertEquals(0, shortNames.verbosity);
+		
+		assertEquals("o", parser.parseArgs(new String[] { "-no" }).name);
+		assertThrows(TooManyPositionals.class, () -> parser.parseArgs(new String[] { "-no", "value" }));
+		assertThrows(DuplicateArgument.class, () -> parser.parseArgs(new String[] { "-qq" }));
+		assertThrows(UnknownArgument.class, () -> parser.parseArgs(new String[] { "-vx" }));
+		assertThrows(UnknownArgument.class, () -> parser.parseArgs(new String[] { "-" }));
+	}
+	
+	@Test
+	void testInlineValues() {
+		final ArgumentParser<ShortClusterArgs> parser = new ArgumentParser<>(ShortClusterArgs.class);
+		
+		final ShortClusterArgs values = parser.parseArgs(new String[] { "--name=a=b", "-vvo/tmp/out" });
+		assertEquals("a=b", values.name);
+		assertEquals("/tmp/out", values.output);
+		assertEquals(2, values.verbosity);
+		
+		assertEquals("", parser.parseArgs(new String[] { "--name=" }).name);
+		assertEquals("v", parser.parseArgs(new String[] { "-nv" }).name);
+		assertEquals("nv", parser.parseArgs(new String[] { "-onv" }).output);
+		
+		assertThrows(UnexpectedValue.class, () -> parser.parseArgs(new String[] { "--quiet=yes" }));
+		assertThrows(UnexpectedValue.class, () -> parser.parseArgs(new String[] { "--verbosity=2" }));
+		assertThrows(DuplicateArgument.class, () -> parser.parseArgs(new String[] { "--name=a", "-nb" }));
+		assertEquals(
+			"Unknown argument: --nmae",
+			assertThrows(UnknownArgument.class, () -> parser.parseArgs(new String[] { "--nmae=a" })).getMessage()
+		);
+		
+		final AppendArgs appended = new ArgumentParser<>(AppendArgs.class).parseArgs(new String[] { "-n1", "--numbers=2", "-n", "3" });
+		assertArrayEquals(new int[] { 1, 2, 3 }, appended.numbers);
+		
+		final RecordArgs record = new ArgumentParser<>(RecordArgs.class).parseArgs(new String[] { "server", "-p8080" });
+		assertEquals(8080, record.port());
+	}
+	
 	@Test
 	void testOptionalDefaultValues() {
 		var parser = new ArgumentParser<>(OptionalDefaultValues.class);
@@ -152,4 +284,110 @@ class ArgumentParserTests {
 		assertEquals(0, values.anInt);
 		assertEquals(0, values.aDouble);
 	}
+	
+	@Test
+	void testSchemaIsCompiledOncePerClass() {
+		final ArgumentSchema<OnlyCount> schema = ArgumentSchema.of(OnlyCount.class);
+		
+		assertSame(schema, ArgumentSchema.of(OnlyCount.class));
+		assertSame(schema, new ArgumentParser<>(OnlyCount.class).getSchema());
+		
+		// parsers sharing a schema must not share any parsing state
+		final OnlyCount first  = new ArgumentParser<>(schema).parseArgs(new String[] { "--count", "--count" });
+		final OnlyCount second = new ArgumentParser<>(schema).parseArgs(new String[] { "--count" });
+		
+		assertEquals(2, first.count);
+		assertEquals(1, second.count);
+	}
+	
+	@Test
+	void testOptionLookup() {
+		final ArgumentParser<LookupArgs> parser = new ArgumentParser<>(LookupArgs.class);
+		final String[] args = { "-ä", "--alpha-beta-gamma", "c", "-a", "a", "--alpha-beta", "b" };
+		
+		final LookupArgs parsedArgs = assertDoesNotThrow(() -> parser.parseArgs(args));
+		
+		assertTrue(parsedArgs.umlaut);
+		assertEquals("a", parsedArgs.alpha);
+		assertEquals("b", parsedArgs.alphaBeta);
+		assertEquals("c", parsedArgs.alphaBetaGamma);
+		
+		assertThrows(UnknownArgument.class, () -> parser.parseArgs(new String[] { "--alpha-bet", "x" }));
+		assertThrows(UnknownArgument.class, () -> parser.parseArgs(new String[] { "-b" }));
+	}
+	
+	@Test
+	void testPrivateFields() {
+		final PrivateFieldArgs parsedArgs = new ArgumentParser<>(PrivateFieldArgs.class).parseArgs(new String[] {
+			"42", "1.5", PATH
+		});
+		
+		assertEquals(42, parsedArgs.getAnInt());
+		assertEquals(1.5d, parsedArgs.getADouble());
+		assertEquals(PATH, parsedArgs.getAString());
+	}
+	
+	@Test
+	void testCustomPrimitiveConverter() {
+		final ArgumentParser<PrivateFieldArgs> parser = new ArgumentParser<>(PrivateFieldArgs.class);
+		parser.registerTypeConverter(int.class, s -> Integer.parseInt(s, 16));
+		
+		assertEquals(255, parser.parseArgs(new String[] { "ff", "0", PATH }).getAnInt());
+	}
+	
+	@Test
+	void testTypedPrimitiveConverters() {
+		final ArgumentParser<PrimitiveArgs> parser = new ArgumentParser<>(PrimitiveArgs.class);
+		parser.registerIntConverter(s -> Integer.parseInt(s, 16));
+		parser.registerDoubleConverter(s -> Double.parseDouble(s) * 2);
+		parser.registerBooleanConverter("yes"::equals);
+		
+		final PrimitiveArgs parsedArgs = parser.parseArgs(new String[] { "yes", "1", "2", "ff", "4", "5", "6" });
+		
+		assertTrue(parsedArgs.booleanPrimitive);
+		assertEquals(255, parsedArgs.intPrimitive);
+		assertEquals(12d, parsedArgs.doublePrimitive);
+	}
+	
+	@Test
+	void testCharsAndCounters() {
+		final ArgumentParser<CharArgs> parser = new ArgumentParser<>(CharArgs.class);
+		
+		final CharArgs parsedArgs = parser.parseArgs(new String[] { "a", "-ccc", "b" });
+		
+		assertEquals('a', parsedArgs.letter);
+		assertEquals('b', (char) parsedArgs.wrappedLetter);
+		assertEquals(3d, parsedArgs.count);
+		assertThrows(ImpossibleConversion.class, () -> parser.parseArgs(new String[] { "ab", "b" }));
+	}
+	
+	@Test
+	void testPrimitiveConversionDoesNotBox() {
+		final int ITERATIONS = 100_000;
+		
+		final ArgumentParser<PrimitiveArgs> parser    = new ArgumentParser<>(PrimitiveArgs.class);
+		final List<ArgumentInfo>            arguments = parser.getSchema().positionalArguments();
+		final PrimitiveArgs                 target    = new PrimitiveArgs();
+		// all of these are outside the caches of the wrapper classes
+		// float and double are left out, parsing them allocates inside the JDK regardless of boxing
+		final String[] values = { "true", "100", "30000", "1000000", "10000000000" };
+		
+		final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		
+		long allocated = 0;
+		for (int round = 0; round < 5; round++) {
+			// the first rounds warm up, only the last one is measured
+			final long before = threads.getCurrentThreadAllocatedBytes();
+			for (int i = 0; i < ITERATIONS; i++) {
+				for (int field = 0; field < values.length; field++) {
+					parser.setField(arguments.get(field), target, values[field]);
+				}
+			}
+			allocated = threads.getCurrentThreadAllocatedBytes() - before;
+		}
+		
+		// boxing would cost at least 16 bytes per value
+		assertTrue(allocated < ITERATIONS, "primitive writes allocated " + allocated + " bytes");
+		assertEquals(10000000000L, target.longPrimitive);
+	}
 }
@@ -0,0 +1,83 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.classes.*;
+import net.callisto.argparse.exceptions.*;
+import org.junit.jupiter.api.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchParsingTests {
+	private static final int LINES = 100_000;
+	
+	// every 10th line is missing its positional
+	private static String[] line(final int i) {
+		return i % 10 == 0 ? new String[] { "-n", "name" } : new String[] { Integer.toString(i), "-n", "line " + i };
+	}
+	
+	@Test
+	void testOrderedBatch() {
+		final ArgumentParser<ConcurrentArgs> parser = new ArgumentParser<>(ConcurrentArgs.class);
+		
+		final List<BatchResult<ConcurrentArgs>> results;
+		try (Stream<BatchResult<ConcurrentArgs>> stream = parser.parseBatch(
+			IntStream.range(0, LINES).mapToObj(BatchParsingTests::line),
+			true
+		)) {
+			results = stream.toList();
+		}
+		
+		assertEquals(LINES, results.size());
+		for (int i = 0; i < LINES; i++) {
+			final BatchResult<ConcurrentArgs> result = results.get(i);
+			
+			assertEquals(i, result.index());
+			if (i % 10 == 0) {
+				assertFalse(result.success());
+				assertInstanceOf(NotEnoughArguments.class, result.error());
+			} else {
+				assertTrue(result.success());
+				assertEquals(i, result.value().id);
+				assertEquals("line " + i, result.value().name);
+			}
+		}
+	}
+	
+	@Test
+	void testUnorderedBatch() {
+		final ArgumentParser<ConcurrentArgs> parser = new ArgumentParser<>(ConcurrentArgs.class);
+		
+		final Map<Long, BatchResult<ConcurrentArgs>> results = parser.parseBatch(
+			IntStream.range(0, LINES).mapToObj(BatchParsingTests::line),
+			false
+		).collect(Collectors.toConcurrentMap(BatchResult::index, result -> result));
+		
+		assertEquals(LINES, results.size());
+		assertEquals(LINES / 10, results.values().stream().filter(result -> !result.success()).count());
+		assertEquals(77, results.get(77L).value().id);
+	}
+	
+	@Test
+	void testBatchFromFile() throws IOException {
+		final Path file = Files.createTempFile("batch", ".txt");
+		file.toFile().deleteOnExit();
+		Files.writeString(file, "1 -n 'first name'\n2 --unknown\n\n3 -vv\n");
+		
+		final ArgumentParser<ConcurrentArgs> parser = new ArgumentParser<>(ConcurrentArgs.class);
+		
+		final List<BatchResult<ConcurrentArgs>> results;
+		try (Stream<BatchResult<ConcurrentArgs>> stream = parser.parseBatch(file, true)) {
+			results = stream.toList();
+		}
+		
+		assertEquals(4, results.size());
+		assertEquals("first name", results.get(0).value().name);
+		assertInstanceOf(UnknownArgument.class, results.get(1).error());
+		assertInstanceOf(NotEnoughArguments.class, results.get(2).error());
+		assertEquals(2, results.get(3).value().verbosity);
+	}
+}
@@ -0,0 +1,102 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.classes.*;
+import org.junit.jupiter.api.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompletionTests {
+	private static final Completion NONE  = new Completion(List.of(), false);
+	private static final Completion FILES = new Completion(List.of(), true);
+	
+	@Test
+	void testOptions() {
+		final Completer completer = new Completer(CompletionArgs.class);
+		
+		assertEquals(List.of("--dry-run", "--include", "--name", "--output", "--verbosity"), completer.complete("--").candidates());
+		assertEquals(List.of("--name"), completer.complete("--n").candidates());
+		assertEquals(List.of("-I", "-n", "-o", "-v"), completer.complete("-").candidates().subList(5, 9));
+		assertEquals(List.of(), completer.complete("--unknown").candidates());
+		
+		// options that can only be given once are left out once they were, counters and APPEND arguments are not
+		assertEquals(List.of("--include", "--verbosity"), completer.complete("--output", "a", "--name=b", "-v", "--dry-run", "-I", "c", "--").candidates());
+		assertEquals(List.of("--include", "--verbosity"), completer.complete("-o", "a", "-n", "b", "--dry-run", "-vI", "c", "--").candidates());
+		
+		// the first positional is a path, so an empty word may be an option or a file
+		final Completion empty = completer.complete("");
+		assertTrue(empty.files());
+		assertEquals(9, empty.candidates().size());
+		assertEquals(new Completion(completer.complete("in").candidates(), true), completer.complete("in"));
+	}
+	
+	@Test
+	void testValues() {
+		final Completer completer = new Completer(CompletionArgs.class);
+		
+		assertEquals(FILES, completer.complete("-o", ""));
+		assertEquals(FILES, completer.complete("--output", "/tm"));
+		assertEquals(FILES, completer.complete("--output=/tm"));
+		assertEquals(FILES, completer.complete("-vI", "/tm"));
+		assertEquals(FILES, completer.complete("-I", "a", "-I", "/tm"));
+		assertEquals(NONE, completer.complete("--name", ""));
+		assertEquals(NONE, completer.complete("--name=a"));
+		// a value looking like an option is still a value
+		assertEquals(NONE, completer.complete("-n", "--"));
+		
+		// the first positional is a path, the second one is not
+		assertEquals(FILES, completer.complete("-n", "a", "in"));
+		assertEquals(NONE, completer.complete("-n", "a", "input", "mo"));
+		assertEquals(NONE, completer.complete("input", "mode", "more"));
+		assertEquals(FILES, completer.complete("--", "-in"));
+		
+		assertEquals(NONE, new Completer(ConcurrentArgs.class).complete("1", "--flag", "x"));
+	}
+	
+	@Test
+	void testExport() throws IOException {
+		final CompletionExporter exporter = new CompletionExporter(ArgumentSchema.of(CompletionArgs.class), "my-tool");
+		
+		final StringBuilder table = new StringBuilder();
+		exporter.writeTable(table);
+		assertEquals(
+			"""
+				# completion table for my-tool, generated by JavArgparse
+				option\t--output\t-o\tfile\tonce
+				option\t--name\t-n\tvalue\tonce
+				option\t--verbosity\t-v\tflag\trepeat
+				option\t--dry-run\t-\tflag\tonce
+				option\t--include\t-I\tfile\trepeat
+				positional\tinput\t-\tfile\tonce
+				positional\tmode\t-\tvalue\tonce
+				""",
+			table.toString()
+		);
+		
+		final Path directory = Files.createTempDirectory("completion");
+		try {
+			final List<Path> files = exporter.export(directory);
+			assertEquals(4, files.size());
+			assertEquals(table.toString(), Files.readString(files.get(0)));
+			
+			final String bash = Files.readString(directory.resolve("my-tool.bash"));
+			assertTrue(bash.contains("local table='" + files.get(0) + "'"));
+			assertTrue(bash.contains("MY_TOOL_COMPLETION_TABLE"));
+			assertTrue(bash.endsWith("complete -o filenames -F _my_tool_complete my-tool\n"));
+			
+			assertTrue(Files.readString(directory.resolve("_my-tool")).startsWith("#compdef my-tool\n"));
+			assertTrue(Files.readString(directory.resolve("my-tool.fish")).contains("complete -c my-tool -f"));
+		} finally {
+			try (Stream<Path> files = Files.list(directory)) {
+				for (Path file : files.toList()) {
+					Files.delete(file);
+				}
+			}
+			Files.delete(directory);
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.classes.*;
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentParsingTests {
+	private static final int PARSES_PER_TASK = 50_000;
+	
+	private static String[] argumentsFor(final int id) {
+		final List<String> arguments = new ArrayList<>();
+		arguments.add(String.valueOf(id));
+		
+		if (id % 2 == 0) {
+			arguments.add("-n");
+			arguments.add("name-" + id);
+		}
+		for (int i = 0; i < id % 4; i++) {
+			arguments.add("-v");
+		}
+		if (id % 3 == 0) {
+			arguments.add("--flag");
+		}
+		
+		return arguments.toArray(String[]::new);
+	}
+	
+	private static void assertParsedCorrectly(final int id, final ConcurrentArgs parsed) {
+		assertEquals(id, parsed.id);
+		assertEquals(id % 2 == 0 ? "name-" + id : null, parsed.name);
+		assertEquals(id % 4, parsed.verbosity);
+		assertEquals(id % 3 == 0, parsed.flag);
+	}
+	
+	@Test
+	void testParserCanBeReused() {
+		final ArgumentParser<ConcurrentArgs> parser = new ArgumentParser<>(ConcurrentArgs.class);
+		
+		final ConcurrentArgs first  = parser.parseArgs(argumentsFor(6));
+		final ConcurrentArgs second = parser.parseArgs(argumentsFor(7));
+		
+		assertNotSame(first, second);
+		assertParsedCorrectly(6, first);
+		assertParsedCorrectly(7, second);
+	}
+	
+	@Test
+	void testSharedParserHasNoCrossTalk() throws InterruptedException {
+		final ArgumentParser<ConcurrentArgs> parser = new ArgumentParser<>(ConcurrentArgs.class);
+		final int                            tasks  = Runtime.getRuntime().availableProcessors() * 8;
+		final AtomicLong                     parses = new AtomicLong();
+		final Queue<Throwable>               errors = new ConcurrentLinkedQueue<>();
+		
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int task = 0; task < tasks; task++) {
+				final int offset = task * PARSES_PER_TASK;
+				
+				executor.execute(() -> {
+					try {
+						for (int id = offset; id < offset + PARSES_PER_TASK; id++) {
+							assertParsedCorrectly(id, parser.parseArgs(argumentsFor(id)));
+							parses.incrementAndGet();
+						}
+					} catch (final Throwable throwable) {
+						errors.add(throwable);
+					}
+				});
+			}
+		}
+		
+		assertTrue(errors.isEmpty(), () -> "parses interfered with each other: " + errors.peek());
+		assertEquals((long) tasks * PARSES_PER_TASK, parses.get());
+	}
+	
+	@Test
+	void testConfigurationChangesWhileParsing() throws InterruptedException {
+		final ArgumentParser<ConcurrentArgs> parser  = new ArgumentParser<>(ConcurrentArgs.class);
+		final CountDownLatch                 parsing = new CountDownLatch(1);
+		
+		try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+			// parses until it sees the converter and the abbreviations registered by the test thread
+			final Future<Integer> seen = executor.submit(() -> {
+				while (!Thread.currentThread().isInterrupted()) {
+					final ParseResult<ConcurrentArgs> result = parser.tryParse(new String[] { "1", "--fl" });
+					parsing.countDown();
+					
+					if (result instanceof ParseResult.Success<ConcurrentArgs>(ConcurrentArgs values) && values.id != 1) {
+						return values.id;
+					}
+				}
+				return -1;
+			});
+			
+			try {
+				parsing.await();
+				parser.registerIntConverter(value -> Integer.parseInt(value) * 10);
+				parser.enableAbbreviations();
+				
+				assertEquals(10, assertDoesNotThrow(() -> seen.get(10, TimeUnit.SECONDS)));
+			} finally {
+				executor.shutdownNow();
+			}
+		}
+	}
+}
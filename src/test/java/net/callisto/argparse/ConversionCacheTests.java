@@ -0,0 +1,129 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.classes.*;
+import org.junit.jupiter.api.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+import java.util.stream.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConversionCacheTests {
+	@Test
+	void testRepeatedValuesAreConvertedOnce() {
+		final ArgumentParser<DefaultInbuiltArgs> parser      = new ArgumentParser<>(DefaultInbuiltArgs.class);
+		final AtomicInteger                      conversions = new AtomicInteger();
+		
+		parser.registerTypeConverter(
+			Path.class, value -> {
+				conversions.incrementAndGet();
+				return Path.of(value);
+			}
+		);
+		parser.enableConversionCache(Path.class, 10);
+		
+		for (int i = 0; i < 5; i++) {
+			final DefaultInbuiltArgs values = parser.parseArgs(new String[] { "string", "/tmp", "/dev/null" });
+			assertEquals(Path.of("/dev/null"), values.aPath);
+		}
+		
+		assertEquals(1, conversions.get());
+		
+		final CacheStatistics statistics = parser.getConversionCacheStatistics(Path.class);
+		assertEquals(4, statistics.hits());
+		assertEquals(1, statistics.misses());
+		assertEquals(1, statistics.size());
+		assertNull(parser.getConversionCacheStatistics(File.class));
+	}
+	
+	@Test
+	void testCacheIsBounded() {
+		final ArgumentParser<DefaultInbuiltArgs> parser = new ArgumentParser<>(DefaultInbuiltArgs.class);
+		parser.enableConversionCache(Path.class, 100);
+		
+		for (int i = 0; i < 1_000; i++) {
+			parser.parseArgs(new String[] { "string", "/tmp", "/tmp/" + i });
+		}
+		
+		final CacheStatistics statistics = parser.getConversionCacheStatistics(Path.class);
+		assertTrue(statistics.size() <= 100, "size " + statistics.size());
+		assertEquals(1_000, statistics.misses());
+		assertEquals(1_000 - statistics.size(), statistics.evictions());
+	}
+	
+	@Test
+	void testNewConverterClearsCache() {
+		final ArgumentParser<DefaultInbuiltArgs> parser = new ArgumentParser<>(DefaultInbuiltArgs.class);
+		parser.enableConversionCache(Path.class, 10);
+		
+		parser.parseArgs(new String[] { "string", "/tmp", "/dev/null" });
+		parser.registerTypeConverter(Path.class, value -> Path.of("/other"));
+		
+		assertEquals(Path.of("/other"), parser.parseArgs(new String[] { "string", "/tmp", "/dev/null" }).aPath);
+	}
+	
+	@Test
+	void testOnlyImmutableTypes() {
+		final ArgumentParser<DefaultInbuiltArgs> parser = new ArgumentParser<>(DefaultInbuiltArgs.class);
+		
+		assertThrows(IllegalArgumentException.class, () -> parser.enableConversionCache(RandomAccessFile.class, 10));
+		assertThrows(IllegalArgumentException.class, () -> parser.enableConversionCache(StringBuilder.class, 10));
+		assertThrows(IllegalArgumentException.class, () -> parser.enableConversionCache(int.class, 10));
+		assertThrows(IllegalArgumentException.class, () -> parser.enableConversionCache(Path.class, 0));
+		
+		assertDoesNotThrow(() -> parser.enableConversionCache(ParseError.class, 10));
+		assertDoesNotThrow(() -> parser.enableConversionCache(ArgumentType.class, 10));
+		assertDoesNotThrow(() -> parser.enableConversionCache(Version.class, 10));
+		assertDoesNotThrow(() -> parser.enableConversionCache(Node.class, 10));
+		
+		// records are only shallowly immutable
+		assertThrows(IllegalArgumentException.class, () -> parser.enableConversionCache(Tags.class, 10));
+		assertThrows(IllegalArgumentException.class, () -> parser.enableConversionCache(Bytes.class, 10));
+		assertThrows(IllegalArgumentException.class, () -> parser.enableConversionCache(Nested.class, 10));
+	}
+	
+	@Test
+	void testClearDuringConversion() {
+		final ConversionCache cache = new ConversionCache(10);
+		
+		// the value was converted before the clear, so it must not be cached after it
+		assertEquals("old", cache.get("a", value -> {
+			cache.clear();
+			return "old";
+		}));
+		assertEquals(0, cache.statistics().size());
+		
+		assertEquals("new", cache.get("a", value -> "new"));
+		assertEquals("new", cache.get("a", value -> "other"));
+	}
+	
+	@Test
+	void testParallelParses() {
+		final ArgumentParser<DefaultInbuiltArgs> parser = new ArgumentParser<>(DefaultInbuiltArgs.class);
+		parser.enableConversionCache(Path.class, 64);
+		
+		final long parsed = parser.parseBatch(
+			IntStream.range(0, 100_000).mapToObj(i -> new String[] { "string", "/tmp", "/tmp/" + (i % 50) }),
+			false
+		).filter(result -> result.value().aPath.equals(Path.of("/tmp/" + (result.index() % 50)))).count();
+		
+		assertEquals(100_000, parsed);
+		assertEquals(100_000, parser.getConversionCacheStatistics(Path.class).hits() + parser.getConversionCacheStatistics(
+			Path.class).misses());
+	}
+	
+	@Immutable
+	static final class Version {
+	}
+	
+	record Node(String name, int depth, Node parent, ArgumentType type) {}
+	
+	record Tags(List<String> tags) {}
+	
+	record Bytes(byte[] bytes) {}
+	
+	record Nested(Tags tags) {}
+}
@@ -0,0 +1,146 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.classes.*;
+import net.callisto.argparse.exceptions.*;
+import org.junit.jupiter.api.*;
+
+import java.io.*;
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.function.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// the parsers used here are generated by the annotation processor from the @GenerateParser fixtures
+class GeneratedParserTests {
+	private static final String PATH = "/dev/null";
+	
+	private static <T> void assertSameOutcome(final Class<T> targetClass, final Function<String[], T> generated,
+		final String... args) {
+		final ArgumentParser<T> reflective = new ArgumentParser<>(targetClass);
+		
+		Object expected;
+		try {
+			expected = reflective.parseArgs(args);
+		} catch (final RuntimeException exc) {
+			expected = exc;
+		}
+		
+		Object actual;
+		try {
+			actual = generated.apply(args);
+		} catch (final RuntimeException exc) {
+			actual = exc;
+		}
+		
+		if (expected instanceof RuntimeException expectedException) {
+			assertInstanceOf(RuntimeException.class, actual, () -> "expected " + expectedException + " for " + Arrays.toString(args));
+			assertEquals(expectedException.getClass(), actual.getClass(), Arrays.toString(args));
+			assertEquals(expectedException.getMessage(), ((RuntimeException) actual).getMessage());
+			return;
+		}
+		
+		final Object parsed = actual;
+		assertInstanceOf(targetClass, parsed, () -> "unexpected " + parsed + " for " + Arrays.toString(args));
+		for (Field field : targetClass.getDeclaredFields()) {
+			if (field.isAnnotationPresent(Argument.class)) {
+				assertEquals(read(field, expected), read(field, parsed), field.getName() + " " + Arrays.toString(args));
+			}
+		}
+	}
+	
+	private static Object read(final Field field, final Object object) {
+		try {
+			return field.get(object);
+		} catch (IllegalAccessException exc) {
+			throw new IllegalStateException(exc);
+		}
+	}
+	
+	@Test
+	void testTypes() {
+		final String[] args = { "true", "1", "2", "3", "4", "5", "6" };
+		
+		assertSameOutcome(PrimitiveArgs.class, new PrimitiveArgsParser()::parseArgs, args);
+		assertSameOutcome(WrapperArgs.class, new WrapperArgsParser()::parseArgs, args);
+		assertSameOutcome(DefaultInbuiltArgs.class, new DefaultInbuiltArgsParser()::parseArgs, PATH, PATH, PATH);
+		assertSameOutcome(PrimitiveArgs.class, new PrimitiveArgsParser()::parseArgs, "true", "1", "2", "3", "x", "5", "6");
+		assertSameOutcome(CharArgs.class, new CharArgsParser()::parseArgs, "a", "-cc", "b");
+		assertSameOutcome(CharArgs.class, new CharArgsParser()::parseArgs, "a", "bc");
+	}
+	
+	@Test
+	void testArgumentTypes() {
+		final Function<String[], AllArgumentTypes> parser = new AllArgumentTypesParser()::parseArgs;
+		
+		assertSameOutcome(AllArgumentTypes.class, parser, PATH, "--true-if-present", "--false-if-present", "--count");
+		assertSameOutcome(AllArgumentTypes.class, parser, "--true-if-present", "--count", "--false-if-present", "--", "-x");
+		assertSameOutcome(AllArgumentTypes.class, parser, PATH, "--true-if-present");
+		assertSameOutcome(AllArgumentTypes.class, parser, PATH, "--true-if-present", "--true-if-present");
+		assertSameOutcome(AllArgumentTypes.class, parser, PATH, PATH, "--true-if-present", "--false-if-present");
+		assertSameOutcome(AllArgumentTypes.class, parser, "--true-if-present", "--false-if-present");
+		assertSameOutcome(AllArgumentTypes.class, parser, PATH, "--unknown");
+		assertSameOutcome(AllArgumentTypes.class, parser, "", "--count");
+		assertSameOutcome(AllArgumentTypes.class, parser, PATH, "", "--count");
+		
+		for (int i = 0; i < 4; i++) {
+			final String[] counts = new String[i];
+			Arrays.fill(counts, "--count");
+			assertSameOutcome(OnlyCount.class, new OnlyCountParser()::parseArgs, counts);
+		}
+	}
+	
+	@Test
+	void testShortArguments() {
+		final Function<String[], ConcurrentArgs> parser = new ConcurrentArgsParser()::parseArgs;
+		
+		assertSameOutcome(ConcurrentArgs.class, parser, "1", "-vvv", "-n", "name");
+		assertSameOutcome(ConcurrentArgs.class, parser, "-vnv", "name", "1");
+		assertSameOutcome(ConcurrentArgs.class, parser, "-nn", "name", "1");
+		assertSameOutcome(ConcurrentArgs.class, parser, "1", "-n");
+		assertSameOutcome(ConcurrentArgs.class, parser, "1", "-x");
+		assertSameOutcome(ConcurrentArgs.class, parser, "1", "-vx");
+		assertSameOutcome(ConcurrentArgs.class, parser, "1", "-");
+		assertSameOutcome(ConcurrentArgs.class, parser, "1", "--flag", "--flag");
+		assertSameOutcome(ConcurrentArgs.class, parser, "1", "2");
+		assertSameOutcome(ConcurrentArgs.class, parser);
+		
+		final Function<String[], ShortClusterArgs> clusterParser = new ShortClusterArgsParser()::parseArgs;
+		assertSameOutcome(ShortClusterArgs.class, clusterParser, "-vqvn", "name", "-o", "output");
+		assertSameOutcome(ShortClusterArgs.class, clusterParser, "-ovalue");
+		assertSameOutcome(ShortClusterArgs.class, clusterParser, "-vovalue");
+		assertSameOutcome(ShortClusterArgs.class, clusterParser, "-oqv");
+		assertSameOutcome(ShortClusterArgs.class, clusterParser, "-ofile", "-qnv");
+		assertSameOutcome(ShortClusterArgs.class, clusterParser, "-no", "value");
+		assertSameOutcome(ShortClusterArgs.class, clusterParser, "-qq");
+		assertSameOutcome(ShortClusterArgs.class, clusterParser, "--name=a=b", "-vvo/tmp/out");
+		assertSameOutcome(ShortClusterArgs.class, clusterParser, "-nv", "--output=");
+		assertSameOutcome(ShortClusterArgs.class, clusterParser, "--quiet=yes");
+		assertSameOutcome(ShortClusterArgs.class, clusterParser, "--verbosity=2");
+		assertSameOutcome(ShortClusterArgs.class, clusterParser, "--name=a", "-nb");
+		assertSameOutcome(ShortClusterArgs.class, clusterParser, "--nmae=a");
+		
+		assertSameOutcome(LookupArgs.class, new LookupArgsParser()::parseArgs, "-ä", "-a", "a", "--alpha-beta", "b");
+		assertSameOutcome(SimpleArgumentCombination.class, new SimpleArgumentCombinationParser()::parseArgs, "--true-if-present", PATH, "-s");
+		assertSameOutcome(OptionalDefaultValues.class, new OptionalDefaultValuesParser()::parseArgs);
+	}
+	
+	@Test
+	void testTypeConverters() {
+		final ClassWithUnregisteredTypeParser parser = new ClassWithUnregisteredTypeParser();
+		
+		assertThrows(ImpossibleConversion.class, () -> parser.parseArgs(new String[] { PATH }));
+		
+		parser.registerTypeConverter(
+			RandomAccessFile.class, s -> {
+				try {
+					return new RandomAccessFile(s, "r");
+				} catch (FileNotFoundException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		);
+		
+		assertNotNull(parser.parseArgs(new String[] { PATH }).raf);
+	}
+}
@@ -0,0 +1,103 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.classes.*;
+import org.junit.jupiter.api.*;
+
+import java.io.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HelpTests {
+	@Test
+	void testHelp() {
+		final ArgumentParser<RecordArgs> parser = new ArgumentParser<>(RecordArgs.class);
+		
+		assertEquals(
+			"""
+				usage: record-args [-p PORT] [-v]... [--dry-run] [-t TAGS]... name
+				
+				positional arguments:
+				  name             (String)
+				
+				options:
+				  -p, --port PORT  Port to listen on (int)
+				  -v, --verbosity  (count)
+				  --dry-run        (flag)
+				  -t, --tags TAGS  Tag added to every request, may be given more than once
+				                   (String, repeatable)
+				""",
+			parser.getHelp(80)
+		);
+		
+		parser.setProgramName("server");
+		assertTrue(parser.getHelp(80).startsWith("usage: server [-p PORT]"));
+		
+		assertTrue(new ArgumentParser<>(AppendArgs.class).getHelp(80).contains("-n, --numbers NUMBERS  (int, repeatable, required)"));
+	}
+	
+	@Test
+	void testWrapping() {
+		final ArgumentParser<RecordArgs> parser = new ArgumentParser<>(RecordArgs.class);
+		
+		for (int width = 40; width <= 100; width++) {
+			for (String line : parser.getHelp(width).split("\n")) {
+				assertTrue(line.length() <= width, () -> line);
+				assertFalse(line.endsWith(" "), () -> line);
+			}
+		}
+		
+		assertEquals(
+			"""
+				  -t, --tags TAGS  Tag added to every
+				                   request, may be given
+				                   more than once
+				                   (String, repeatable)
+				""",
+			parser.getHelp(40).substring(parser.getHelp(40).indexOf("  -t"))
+		);
+	}
+	
+	@Test
+	void testPrintHelpWritesCachedBytes() throws IOException {
+		final ArgumentParser<RecordArgs> parser  = new ArgumentParser<>(RecordArgs.class);
+		final ArgumentSchema<RecordArgs> schema  = parser.getSchema();
+		final Charset                    charset = HelpFormatter.terminalCharset();
+		
+		final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		parser.printHelp(stream, 80);
+		assertEquals(parser.getHelp(80), stream.toString(charset));
+		
+		final ByteArrayOutputStream channelBytes = new ByteArrayOutputStream();
+		parser.printHelp(Channels.newChannel(channelBytes), 80);
+		assertEquals(parser.getHelp(80), channelBytes.toString(charset));
+		
+		// rendered once per width, shared by every parser of the schema
+		final byte[] help = schema.help(80);
+		assertSame(help, schema.help(80));
+		assertNotSame(help, schema.help(60));
+		
+		// only a few widths are kept, the others are rendered every time
+		for (int width = 100; width < 200; width++) {
+			assertEquals(parser.getHelp(width), new String(schema.help(width), charset));
+		}
+		assertSame(help, schema.help(80));
+		assertNotSame(schema.help(199), schema.help(199));
+		
+		assertThrows(IllegalArgumentException.class, () -> parser.printHelp(stream, 0));
+		assertThrows(IllegalArgumentException.class, () -> parser.getHelp(0));
+		assertThrows(IllegalArgumentException.class, () -> parser.getHelp(-1));
+		
+		// a new program name isn't hidden by the help printed before
+		parser.setProgramName("renamed");
+		stream.reset();
+		parser.printHelp(stream, 80);
+		assertTrue(stream.toString(charset).startsWith("usage: renamed "));
+		
+		parser.setProgramName(null);
+		stream.reset();
+		parser.printHelp(stream, 80);
+		assertTrue(stream.toString(charset).startsWith("usage: record-args "));
+	}
+}
@@ -0,0 +1,64 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.classes.*;
+import net.callisto.argparse.exceptions.*;
+import org.junit.jupiter.api.*;
+
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyArgumentTests {
+	@Test
+	void testConvertedOnFirstRead() {
+		final ArgumentParser<LazyArgs> parser      = new ArgumentParser<>(LazyArgs.class);
+		final AtomicInteger            conversions = new AtomicInteger();
+		parser.registerTypeConverter(
+			Integer.class, value -> {
+				conversions.incrementAndGet();
+				return Integer.parseInt(value);
+			}
+		);
+		
+		final LazyArgs values = parser.parseArgs(new String[] { "-v", "--retries", "3", "/tmp/input", "-p", "8080" });
+		assertEquals(0, conversions.get());
+		assertEquals(1, values.verbosity);
+		
+		assertEquals(8080, values.port.get());
+		assertEquals(1, conversions.get());
+		assertEquals(8080, values.port.get());
+		assertEquals(1, conversions.get());
+		
+		final Lazy<Integer> retries = values.retries;
+		assertFalse(retries.isConverted());
+		assertEquals("3", retries.value());
+		assertEquals(3, retries.get());
+		assertTrue(retries.isConverted());
+		
+		assertEquals(Path.of("/tmp/input"), values.input.get());
+		assertNull(parser.parseArgs(new String[] { "/tmp/input" }).port);
+	}
+	
+	@Test
+	void testErrorsAreReportedOnRead() {
+		final ArgumentParser<LazyArgs> parser = new ArgumentParser<>(LazyArgs.class);
+		
+		final LazyArgs values = assertDoesNotThrow(() -> parser.parseArgs(new String[] { "/tmp/input", "-p", "http" }));
+		
+		final LazyConversionFailed failure = assertThrows(LazyConversionFailed.class, values.port::get);
+		assertEquals("http", failure.getValue());
+		assertEquals(1, failure.getPosition());
+		assertInstanceOf(NumberFormatException.class, failure.getCause());
+		// the conversion is not repeated
+		assertSame(failure, assertThrows(LazyConversionFailed.class, values.port::get));
+		
+		// the position of inline values and values in streams is the one of their argument
+		final LazyArgs inline = parser.parseArgs(new String[] { "-vv", "--retries=x", "/tmp/input" });
+		assertEquals(1, assertThrows(LazyConversionFailed.class, inline.retries::get).getPosition());
+		
+		final LazyArgs streamed = parser.parseArgs(List.of("/tmp/input", "-v", "--retries", "x").iterator());
+		assertEquals(2, assertThrows(LazyConversionFailed.class, streamed.retries::get).getPosition());
+	}
+}
@@ -0,0 +1,133 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.classes.*;
+import net.callisto.argparse.exceptions.*;
+import org.junit.jupiter.api.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+import jdk.jfr.*;
+import jdk.jfr.consumer.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParseListenerTests {
+	private static final String[] ARGUMENTS = { "1", "-vv", "-n", "name", "--flag" };
+	
+	@Test
+	void testHistogramRecorder() {
+		final ArgumentParser<ConcurrentArgs> parser   = new ArgumentParser<>(ConcurrentArgs.class);
+		final HistogramRecorder              recorder = new HistogramRecorder();
+		parser.setParseListener(recorder);
+		
+		for (int i = 0; i < 10; i++) {
+			parser.parseArgs(ARGUMENTS);
+		}
+		
+		assertEquals(10, recorder.parses());
+		assertEquals(50, recorder.tokens());
+		assertEquals(0, recorder.errors());
+		assertEquals(10, recorder.count(HistogramRecorder.Phase.TOTAL));
+		assertEquals(30, recorder.count(HistogramRecorder.Phase.CONVERSION));
+		assertEquals(Map.of(int.class, 10L, String.class, 10L, boolean.class, 10L), recorder.conversions());
+		
+		final long median = recorder.quantile(HistogramRecorder.Phase.TOTAL, 0.5);
+		assertTrue(median > 0);
+		assertTrue(median <= recorder.quantile(HistogramRecorder.Phase.TOTAL, 1));
+		
+		recorder.reset();
+		parser.setParseListener(null);
+		parser.parseArgs(ARGUMENTS);
+		
+		assertEquals(0, recorder.parses());
+		assertEquals(0, recorder.quantile(HistogramRecorder.Phase.TOTAL, 0.5));
+	}
+	
+	@Test
+	void testErrorsAreCounted() {
+		final ArgumentParser<ConcurrentArgs> parser   = new ArgumentParser<>(ConcurrentArgs.class);
+		final List<ParseMetrics>             metrics  = new ArrayList<>();
+		final List<Class<?>>                 failures = new ArrayList<>();
+		
+		parser.setParseListener(new ParseListener() {
+			@Override
+			public void parsed(final ParseMetrics parsed) {
+				metrics.add(parsed);
+			}
+			
+			@Override
+			public void converted(final Class<?> type, final long nanos, final boolean failed) {
+				if (failed) {
+					failures.add(type);
+				}
+			}
+		});
+		
+		assertThrows(UnknownArgument.class, () -> parser.parseArgs(new String[] { "1", "-x" }));
+		assertInstanceOf(ParseResult.Failure.class, parser.tryParse(new String[] { "x", "-x", "-y" }));
+		
+		assertEquals(2, metrics.size());
+		assertEquals(1, metrics.get(0).errors());
+		assertEquals(2, metrics.get(0).tokens());
+		assertEquals(3, metrics.get(1).errors());
+		assertEquals(1, metrics.get(1).conversions());
+		assertEquals(List.of(int.class), failures);
+		
+		for (ParseMetrics parsed : metrics) {
+			assertEquals(ConcurrentArgs.class, parsed.targetClass());
+			assertTrue(parsed.lookupNanos() >= 0);
+			assertEquals(parsed.argumentNanos() + parsed.verifyNanos(), parsed.totalNanos());
+		}
+	}
+	
+	@Test
+	void testConvertedTypes() {
+		final ArgumentParser<AppendArgs> parser = new ArgumentParser<>(AppendArgs.class);
+		final List<Class<?>>             types  = new ArrayList<>();
+		
+		parser.setParseListener(new ParseListener() {
+			@Override
+			public void converted(final Class<?> type, final long nanos, final boolean failed) {
+				types.add(type);
+			}
+		});
+		
+		// APPEND arguments report the type of one value, not the array or list they are collected into
+		parser.parseArgs(new String[] { "-n", "1", "-i", "a", "--paths", "/tmp", "--weights", "0.5" });
+		assertEquals(List.of(int.class, String.class, Path.class, double.class), types);
+	}
+	
+	@Test
+	void testFlightRecorderEvents() throws IOException {
+		final ArgumentParser<ConcurrentArgs> parser = new ArgumentParser<>(ConcurrentArgs.class);
+		final Path                           file   = Files.createTempFile("argparse", ".jfr");
+		
+		try (Recording recording = new Recording()) {
+			recording.enable("net.callisto.argparse.Parse").withThreshold(Duration.ZERO);
+			recording.enable("net.callisto.argparse.Conversion").withThreshold(Duration.ZERO);
+			recording.start();
+			
+			parser.parseArgs(ARGUMENTS);
+			
+			recording.stop();
+			recording.dump(file);
+		}
+		
+		final List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+		Files.delete(file);
+		
+		final List<RecordedEvent> parses = events.stream()
+			.filter(event -> event.getEventType().getName().equals("net.callisto.argparse.Parse"))
+			.toList();
+		assertEquals(1, parses.size());
+		assertEquals(5, parses.get(0).getInt("tokens"));
+		assertEquals(3, parses.get(0).getInt("conversions"));
+		assertEquals(ConcurrentArgs.class.getName(), parses.get(0).getClass("targetClass").getName());
+		
+		assertEquals(3, events.stream()
+			.filter(event -> event.getEventType().getName().equals("net.callisto.argparse.Conversion"))
+			.count());
+	}
+}
@@ -0,0 +1,91 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.classes.*;
+import net.callisto.argparse.exceptions.*;
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParseResultTests {
+	@SuppressWarnings("unchecked")
+	private static <T> T value(final ParseResult<T> result) {
+		return ((ParseResult.Success<T>) assertInstanceOf(ParseResult.Success.class, result)).value();
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static <T> List<ParseError> errors(final ParseResult<T> result) {
+		return ((ParseResult.Failure<T>) assertInstanceOf(ParseResult.Failure.class, result)).errors();
+	}
+	
+	@Test
+	void testSuccess() {
+		final ArgumentParser<ConcurrentArgs> parser = new ArgumentParser<>(ConcurrentArgs.class);
+		
+		final ConcurrentArgs values = value(parser.tryParse(new String[] { "1", "-vv", "--flag" }));
+		
+		assertEquals(1, values.id);
+		assertEquals(2, values.verbosity);
+		assertTrue(values.flag);
+	}
+	
+	@Test
+	void testAllErrorsAreCollected() {
+		final ArgumentParser<ShortClusterArgs> parser = new ArgumentParser<>(ShortClusterArgs.class);
+		
+		final ParseResult<ShortClusterArgs> result = parser.tryParse(new String[] {
+			"-qx", "--unknown", "-q", "-no", "positional", "--name"
+		});
+		
+		final List<ParseError> errors = errors(result);
+		
+		assertEquals(
+			List.of(
+				ParseError.Code.UNKNOWN_ARGUMENT,
+				ParseError.Code.UNKNOWN_ARGUMENT,
+				ParseError.Code.DUPLICATE_ARGUMENT,
+				ParseError.Code.TOO_MANY_POSITIONALS,
+				ParseError.Code.DUPLICATE_ARGUMENT,
+				ParseError.Code.MISSING_VALUE
+			),
+			errors.stream().map(ParseError::code).toList()
+		);
+		assertEquals(List.of(0, 1, 2, 4, 5, 5), errors.stream().map(ParseError::position).toList());
+		assertEquals("-x", errors.get(0).argument());
+		assertEquals(new UnknownArgument("-x").getMessage(), errors.get(0).message());
+	}
+	
+	@Test
+	void testVerificationErrors() {
+		final ArgumentParser<PrimitiveArgs> parser = new ArgumentParser<>(PrimitiveArgs.class);
+		
+		final List<ParseError> errors = errors(parser.tryParse(new String[] { "true", "x" }));
+		
+		assertEquals(2, errors.size());
+		assertEquals(ParseError.Code.INVALID_VALUE, errors.get(0).code());
+		assertEquals(1, errors.get(0).position());
+		assertEquals("x", errors.get(0).argument());
+		assertEquals(ParseError.Code.NOT_ENOUGH_POSITIONALS, errors.get(1).code());
+		assertEquals(-1, errors.get(1).position());
+		
+		final List<ParseError> missing = errors(new ArgumentParser<>(AllArgumentTypes.class).tryParse(new String[] { "value" }));
+		assertEquals(
+			List.of("true-if-present", "false-if-present"),
+			missing.stream().map(ParseError::argument).toList()
+		);
+	}
+	
+	@Test
+	void testStacklessExceptions() {
+		assertEquals(0, new UnknownArgument("-x", false).getStackTrace().length);
+		assertNotEquals(0, new UnknownArgument("-x").getStackTrace().length);
+		
+		// parseArgs still throws exceptions with a stack trace
+		final UnknownArgument thrown = assertThrows(
+			UnknownArgument.class,
+			() -> new ArgumentParser<>(ShortClusterArgs.class).parseArgs(new String[] { "-x" })
+		);
+		assertNotEquals(0, thrown.getStackTrace().length);
+	}
+}
@@ -0,0 +1,108 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.exceptions.*;
+import org.junit.jupiter.api.*;
+
+import java.io.*;
+import java.net.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.*;
+import javax.tools.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// the option classes are compiled while testing, sources with thousands of fields are not worth keeping
+class SchemaScalingTests {
+	private static final int[] SIZES = { 10, 1_000, 10_000 };
+	
+	private static Path                   directory;
+	private static URLClassLoader         loader;
+	private static Map<Integer, Class<?>> classes;
+	private static Class<?>               duplicates;
+	
+	// a quarter each of positionals, options with a value, flags and counters
+	// the first and the last option get the given short name, if there is one
+	private static Path writeOptionClass(final String className, final int size, final String shortName) throws IOException {
+		final StringBuilder source = new StringBuilder("package scaling;\n\nimport net.callisto.argparse.*;\n\n");
+		source.append("public class ").append(className).append(" {\n");
+		
+		// the last i with i % 4 == 1
+		final int lastOption = (size - 3) / 4 * 4 + 1;
+		for (int i = 0; i < size; i++) {
+			final String option = shortName != null && (i == 1 || i == lastOption) ? ", shortName = \"" + shortName + "\"" : "";
+			
+			source.append(switch (i % 4) {
+				case 0 -> "\t@Argument(positional = true)\n\tpublic String positional" + i + ";\n";
+				case 1 -> "\t@Argument(optional = true" + option + ")\n\tpublic String option" + i + ";\n";
+				case 2 -> "\t@Argument(type = ArgumentType.TRUE_IF_PRESENT, optional = true)\n\tpublic boolean flag" + i + ";\n";
+				default -> "\t@Argument(type = ArgumentType.COUNT)\n\tpublic int counter" + i + ";\n";
+			});
+		}
+		
+		final Path file = directory.resolve(className + ".java");
+		Files.writeString(file, source.append("}\n"));
+		return file;
+	}
+	
+	@BeforeAll
+	static void compileOptionClasses() throws IOException, ClassNotFoundException {
+		directory = Files.createTempDirectory("argparse-scaling");
+		final List<Path> sources = new ArrayList<>();
+		
+		for (int size : SIZES) {
+			sources.add(writeOptionClass("Options" + size, size, null));
+		}
+		sources.add(writeOptionClass("Duplicates", 10_000, "d"));
+		
+		final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		try (StandardJavaFileManager files = compiler.getStandardFileManager(null, null, null)) {
+			final boolean compiled = compiler.getTask(
+				null,
+				files,
+				null,
+				List.of("-d", directory.toString(), "-classpath", System.getProperty("java.class.path")),
+				null,
+				files.getJavaFileObjectsFromPaths(sources)
+			).call();
+			assertTrue(compiled);
+		}
+		
+		loader = new URLClassLoader(
+			new URL[] { directory.toUri().toURL() },
+			SchemaScalingTests.class.getClassLoader()
+		);
+		
+		classes = new HashMap<>();
+		for (int size : SIZES) {
+			classes.put(size, loader.loadClass("scaling.Options" + size));
+		}
+		duplicates = loader.loadClass("scaling.Duplicates");
+	}
+	
+	@AfterAll
+	static void deleteOptionClasses() throws IOException {
+		try (URLClassLoader ignored = loader; Stream<Path> files = Files.walk(directory)) {
+			for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+				Files.delete(file);
+			}
+		}
+	}
+	
+	@Test
+	void testAllFieldsAreRegistered() {
+		for (int size : SIZES) {
+			final ArgumentSchema<?> schema = ArgumentSchema.of(classes.get(size));
+			
+			assertEquals(size / 4 + (size % 4 > 0 ? 1 : 0), schema.positionalArguments().size());
+			assertEquals(size, schema.positionalArguments().size() + schema.relativeArguments().size());
+		}
+	}
+	
+	@Test
+	void testDuplicatesAmongManyFieldsAreFound() {
+		// the first and the last of 10000 fields share a short name, every name is checked against all names before it
+		final DuplicateArgument duplicate = assertThrows(DuplicateArgument.class, () -> ArgumentSchema.compile(duplicates));
+		assertEquals(new DuplicateArgument("d").getMessage(), duplicate.getMessage());
+	}
+}
@@ -0,0 +1,149 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.classes.*;
+import net.callisto.argparse.exceptions.*;
+import org.junit.jupiter.api.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingParseTests {
+	@Test
+	void testIteratorMatchesArray() {
+		final ArgumentParser<ShortClusterArgs> parser = new ArgumentParser<>(ShortClusterArgs.class);
+		
+		final String[] args = { "-vqvn", "name", "--verbosity", "-o", "output", "-v" };
+		
+		final ShortClusterArgs fromArray    = parser.parseArgs(args);
+		final ShortClusterArgs fromIterator = parser.parseArgs(Arrays.asList(args).iterator());
+		
+		assertEquals(fromArray.verbosity, fromIterator.verbosity);
+		assertEquals(fromArray.quiet, fromIterator.quiet);
+		assertEquals(fromArray.name, fromIterator.name);
+		assertEquals(fromArray.output, fromIterator.output);
+		
+		assertThrows(NotEnoughArguments.class, () -> parser.parseArgs(List.of("-v", "-n").iterator()));
+		assertEquals("value", parser.parseArgs(List.of("-vovalue").iterator()).output);
+		assertThrows(TooManyPositionals.class, () -> parser.parseArgs(List.of("-v", "value").iterator()));
+	}
+	
+	@Test
+	void testRestIsPushedToConsumer() {
+		final ArgumentParser<ConcurrentArgs> parser = new ArgumentParser<>(ConcurrentArgs.class);
+		
+		final List<String>   rest   = new ArrayList<>();
+		final ConcurrentArgs values = parser.parseArgs(List.of("7", "a", "-v", "--", "-b").iterator(), rest::add);
+		
+		assertEquals(7, values.id);
+		assertEquals(1, values.verbosity);
+		assertEquals(List.of("a", "-b"), rest);
+	}
+	
+	@Test
+	void testLongStreamIsNotBuffered() {
+		final ArgumentParser<ConcurrentArgs> parser = new ArgumentParser<>(ConcurrentArgs.class);
+		
+		final int    COUNT = 5_000_000;
+		final long[] rest  = new long[1];
+		
+		// the tokens are created on demand, so this only works if none of them are kept
+		final Iterator<String> tokens = Stream.concat(Stream.of("1"), IntStream.range(0, COUNT).mapToObj(Integer::toString))
+			.iterator();
+		
+		parser.parseArgs(tokens, token -> rest[0]++);
+		
+		assertEquals(COUNT, rest[0]);
+	}
+	
+	@Test
+	void testReader() {
+		final ArgumentParser<ShortClusterArgs> parser = new ArgumentParser<>(ShortClusterArgs.class);
+		final List<String>                     rest   = new ArrayList<>();
+		
+		final ShortClusterArgs values = parser.parseArgs(
+			new StringReader("-vv\t--name 'a name'\n-o \"an \\\"output\\\"\" -- x\\ y"),
+			rest::add
+		);
+		
+		assertEquals(2, values.verbosity);
+		assertEquals("a name", values.name);
+		assertEquals("an \"output\"", values.output);
+		assertEquals(List.of("x y"), rest);
+		
+		assertThrows(UnterminatedQuote.class, () -> parser.parseArgs(new StringReader("-n 'name"), rest::add));
+	}
+	
+	@Test
+	void testLine() {
+		final ArgumentParser<ShortClusterArgs> parser = new ArgumentParser<>(ShortClusterArgs.class);
+		
+		final ShortClusterArgs values = parser.parseLine("  -vv\t--name 'a name' -o \"an \\\"output\\\"\"  ");
+		
+		assertEquals(2, values.verbosity);
+		assertEquals("a name", values.name);
+		assertEquals("an \"output\"", values.output);
+		
+		assertEquals("", parser.parseLine(new StringBuilder("-n ''")).name);
+		assertThrows(UnterminatedQuote.class, () -> parser.parseLine("-n \"name"));
+		assertInstanceOf(ParseResult.Success.class, parser.tryParseLine("-n name"));
+		
+		final ParseResult<ShortClusterArgs> result = parser.tryParseLine("-n 'a name");
+		assertEquals(
+			List.of(new ParseError(ParseError.Code.UNTERMINATED_QUOTE, -1, "a name", "Missing closing quote after: a name")),
+			assertInstanceOf(ParseResult.Failure.class, result).errors()
+		);
+	}
+	
+	@Test
+	void testEmptyArgumentIsPositional() {
+		final ArgumentParser<CompletionArgs> parser = new ArgumentParser<>(CompletionArgs.class);
+		
+		final CompletionArgs values = parser.parseLine("a \"\"");
+		assertEquals(Path.of("a"), values.input);
+		assertEquals("", values.mode);
+		
+		final ParseResult<CompletionArgs> result = parser.tryParseLine("-v a ''");
+		assertEquals("", ((CompletionArgs) assertInstanceOf(ParseResult.Success.class, result).value()).mode);
+		
+		assertEquals("", parser.parseArgs(List.of("a", "").iterator()).mode);
+		assertEquals("", parser.parseArgs(new StringReader("a ''"), argument -> {}).mode);
+		assertThrows(TooManyPositionals.class, () -> parser.parseLine("a b ''"));
+	}
+	
+	@Test
+	void testLineSplitsLikeReader() {
+		final char[] alphabet = { 'a', 'b', ' ', '\t', '\n', '"', '\'', '\\', '=', '-', 'é' };
+		final Random random   = new Random(25);
+		
+		for (int i = 0; i < 20_000; i++) {
+			final StringBuilder line = new StringBuilder();
+			for (int c = random.nextInt(24); c > 0; c--) {
+				line.append(alphabet[random.nextInt(alphabet.length)]);
+			}
+			
+			assertEquals(splitWithReader(line.toString()), splitLine(line), line.toString());
+		}
+	}
+	
+	private static List<String> splitWithReader(final String line) {
+		final List<String> arguments = new ArrayList<>();
+		try {
+			new ArgumentTokenizer(new StringReader(line)).forEachRemaining(arguments::add);
+		} catch (final UnterminatedQuote exc) {
+			return List.of("unterminated " + exc.getMessage());
+		}
+		return arguments;
+	}
+	
+	private static List<String> splitLine(final CharSequence line) {
+		try {
+			return List.of(LineScanner.split(line));
+		} catch (final UnterminatedQuote exc) {
+			return List.of("unterminated " + exc.getMessage());
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.classes.*;
+import net.callisto.argparse.classes.invalid.*;
+import net.callisto.argparse.exceptions.*;
+import org.junit.jupiter.api.*;
+
+import java.io.*;
+import java.nio.file.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubcommandTests {
+	private static final String PATH = "/dev/null";
+	
+	@Test
+	void testDispatch() {
+		final SubcommandParser parser = new SubcommandParser();
+		parser.registerSubcommand("cluster", ShortClusterArgs.class);
+		parser.registerSubcommand("count", OnlyCount.class);
+		
+		final ParsedSubcommand cluster = parser.parseArgs(new String[] { "cluster", "-vv", "-n", "name" });
+		assertEquals("cluster", cluster.name());
+		final ShortClusterArgs clusterArgs = assertInstanceOf(ShortClusterArgs.class, cluster.arguments());
+		assertEquals(2, clusterArgs.verbosity);
+		assertEquals("name", clusterArgs.name);
+		
+		final OnlyCount count = assertInstanceOf(OnlyCount.class, parser.parseArgs(new String[] { "count", "--count" }).arguments());
+		assertEquals(1, count.count);
+		
+		assertThrows(UnknownSubcommand.class, () -> parser.parseArgs(new String[] { "deploy" }));
+		assertThrows(NotEnoughArguments.class, () -> parser.parseArgs(new String[] {}));
+		assertThrows(DuplicateArgument.class, () -> parser.registerSubcommand("count", OnlyCount.class));
+	}
+	
+	@Test
+	void testSubcommandsAreReflectedLazily() {
+		final SubcommandParser parser = new SubcommandParser();
+		
+		// invalid classes only fail once their subcommand is used
+		parser.registerSubcommand("invalid", CountAndPositional.class);
+		parser.registerSubcommand("count", OnlyCount.class);
+		
+		assertDoesNotThrow(() -> parser.parseArgs(new String[] { "count" }));
+		assertThrows(InvalidArgumentCombination.class, () -> parser.parseArgs(new String[] { "invalid" }));
+	}
+	
+	@Test
+	void testTypeConverters() {
+		final SubcommandParser parser = new SubcommandParser();
+		parser.registerSubcommand("open", ClassWithUnregisteredType.class);
+		parser.registerTypeConverter(
+			RandomAccessFile.class, s -> {
+				try {
+					return new RandomAccessFile(s, "r");
+				} catch (FileNotFoundException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		);
+		
+		final ClassWithUnregisteredType values = (ClassWithUnregisteredType) parser.parseArgs(new String[] { "open", PATH })
+			.arguments();
+		assertNotNull(values.raf);
+	}
+	
+	@Test
+	void testConverterAfterFirstParse() {
+		final SubcommandParser parser = new SubcommandParser();
+		parser.registerSubcommand("inbuilt", DefaultInbuiltArgs.class);
+		
+		final String[] arguments = { "inbuilt", "string", "/tmp", PATH };
+		assertEquals(Path.of(PATH), ((DefaultInbuiltArgs) parser.parseArgs(arguments).arguments()).aPath);
+		
+		// the parser of the subcommand already exists, it gets the converter as well
+		parser.registerTypeConverter(Path.class, value -> Path.of("/other"));
+		assertEquals(Path.of("/other"), ((DefaultInbuiltArgs) parser.parseArgs(arguments).arguments()).aPath);
+	}
+}
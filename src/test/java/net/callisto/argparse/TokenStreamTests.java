@@ -0,0 +1,151 @@
+package net.callisto.argparse;
+
+import net.callisto.argparse.classes.*;
+import net.callisto.argparse.exceptions.*;
+import org.junit.jupiter.api.*;
+
+import java.lang.reflect.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenStreamTests {
+	private static final String PATH = "/dev/null";
+	
+	// the tokens have to give the same values or the same exception as the arguments they came from
+	private static <T> void assertSameOutcome(final ArgumentParser<T> parser, final TokenStream tokens, final String... args) {
+		Object expected;
+		try {
+			expected = parser.parseArgs(args);
+		} catch (final RuntimeException exc) {
+			expected = exc;
+		}
+		
+		Object actual;
+		try {
+			actual = parser.parseArgs(tokens);
+		} catch (final RuntimeException exc) {
+			actual = exc;
+		}
+		
+		if (expected instanceof RuntimeException expectedException) {
+			assertEquals(expectedException.getClass(), actual.getClass(), Arrays.toString(args));
+			assertEquals(expectedException.getMessage(), ((RuntimeException) actual).getMessage());
+			assertEquals(parser.tryParse(args), parser.tryParse(tokens));
+			return;
+		}
+		
+		for (Field field : parser.getSchema().targetClass().getDeclaredFields()) {
+			if (field.isAnnotationPresent(Argument.class)) {
+				assertTrue(Objects.deepEquals(read(field, expected), read(field, actual)), field.getName() + " " + Arrays.toString(args));
+			}
+		}
+	}
+	
+	private static Object read(final Field field, final Object object) {
+		try {
+			field.setAccessible(true);
+			return field.get(object);
+		} catch (IllegalAccessException exc) {
+			throw new IllegalStateException(exc);
+		}
+	}
+	
+	@Test
+	void testTokens() {
+		final ArgumentParser<ShortClusterArgs> parser = new ArgumentParser<>(ShortClusterArgs.class);
+		final TokenStream tokens = parser.tokenize(new String[] { "--name=a", "-vvo/tmp", "-n", "x", "--", "-q" });
+		
+		final TokenStream.Kind[] kinds = {
+			TokenStream.Kind.LONG, TokenStream.Kind.VALUE,
+			TokenStream.Kind.CLUSTER, TokenStream.Kind.SHORT, TokenStream.Kind.SHORT, TokenStream.Kind.SHORT, TokenStream.Kind.VALUE,
+			TokenStream.Kind.SHORT, TokenStream.Kind.VALUE,
+			TokenStream.Kind.SEPARATOR, TokenStream.Kind.POSITIONAL
+		};
+		final int[] options   = { 2, 2, -1, 0, 0, 3, 3, 2, 2, -1, -1 };
+		final int[] arguments = { 0, 0, 1, 1, 1, 1, 1, 2, 3, 4, 5 };
+		final int[] starts    = { 2, 7, 1, 1, 2, 3, 4, 1, 0, 0, 0 };
+		final int[] ends      = { 6, 8, 8, 2, 3, 4, 8, 2, 1, 2, 2 };
+		
+		assertEquals(kinds.length, tokens.size());
+		for (int t = 0; t < tokens.size(); t++) {
+			assertEquals(kinds[t], tokens.kind(t), "kind of " + t);
+			assertEquals(options[t], tokens.option(t), "option of " + t);
+			assertEquals(arguments[t], tokens.argument(t), "argument of " + t);
+			assertEquals(starts[t], tokens.start(t), "start of " + t);
+			assertEquals(ends[t], tokens.end(t), "end of " + t);
+		}
+		
+		assertEquals("name", tokens.text(0));
+		assertEquals("/tmp", tokens.text(6));
+		assertEquals("output", parser.getSchema().relativeArguments().get(tokens.option(5)).longName());
+		assertThrows(IndexOutOfBoundsException.class, () -> tokens.kind(tokens.size()));
+		
+		// the rest of the cluster is the value, even if it starts with a short name
+		final TokenStream attached = parser.tokenize(new String[] { "-oqv", "x" });
+		assertEquals(4, attached.size());
+		assertEquals(TokenStream.Kind.VALUE, attached.kind(2));
+		assertEquals("qv", attached.text(2));
+		assertEquals(TokenStream.Kind.POSITIONAL, attached.kind(3));
+	}
+	
+	@Test
+	void testReplay() {
+		final ArgumentParser<ShortClusterArgs> clusterParser = new ArgumentParser<>(ShortClusterArgs.class);
+		final List<String[]> clusterArgs = List.of(
+			new String[] { "-vqnv", "name", "-o", "output" },
+			new String[] { "--name=a=b", "-vvo/tmp/out" },
+			new String[] { "-no", "value" },
+			new String[] { "-vovalue", "-oqv" },
+			new String[] { "-ofile", "-nv" },
+			new String[] { "-qq" },
+			new String[] { "-vx", "--unknown", "-" },
+			new String[] { "--quiet=yes" },
+			new String[] { "-n" },
+			new String[] { "--", "-n" }
+		);
+		for (String[] args : clusterArgs) {
+			final TokenStream tokens = clusterParser.tokenize(args);
+			
+			// replaying the same tokens twice works the same way
+			assertSameOutcome(clusterParser, tokens, args);
+			assertSameOutcome(clusterParser, tokens, args);
+		}
+		
+		final ArgumentParser<AllArgumentTypes> typesParser = new ArgumentParser<>(AllArgumentTypes.class);
+		final String[] typesArgs = { PATH, "--true-if-present", "--count", "--count", "--", "-x" };
+		assertSameOutcome(typesParser, typesParser.tokenize(typesArgs), typesArgs);
+		
+		final ArgumentParser<AppendArgs> appendParser = new ArgumentParser<>(AppendArgs.class);
+		final String[] appendArgs = { "-n1", "--numbers=2", "-n", "3", "-i", "a", "--paths", PATH };
+		assertSameOutcome(appendParser, appendParser.tokenize(appendArgs), appendArgs);
+		
+		final ArgumentParser<LookupArgs> lookupParser = new ArgumentParser<>(LookupArgs.class);
+		lookupParser.enableAbbreviations();
+		for (String[] args : List.of(new String[] { "--alpha-beta-g", "c" }, new String[] { "--alpha-b", "b" }, new String[] { "--u" })) {
+			assertSameOutcome(lookupParser, lookupParser.tokenize(args), args);
+		}
+	}
+	
+	@Test
+	void testOtherSchemas() {
+		final String[] args = { "-v", "--name", "a", "-q" };
+		
+		final ArgumentParser<ShortClusterArgs> clusterParser = new ArgumentParser<>(ShortClusterArgs.class);
+		final ArgumentParser<ConcurrentArgs>   otherParser   = new ArgumentParser<>(ConcurrentArgs.class);
+		final TokenStream                      tokens        = clusterParser.tokenize(args);
+		
+		// tokens of another schema are tokenized again
+		assertSameOutcome(otherParser, tokens, args);
+		final String[] otherArgs = { "1", "-vn", "a" };
+		assertSameOutcome(otherParser, clusterParser.tokenize(otherArgs), otherArgs);
+		
+		// so are the tokens of a parser that allows abbreviations when this one doesn't
+		final ArgumentParser<LookupArgs> abbreviating = new ArgumentParser<>(LookupArgs.class);
+		abbreviating.enableAbbreviations();
+		final TokenStream abbreviated = abbreviating.tokenize(new String[] { "--alpha-beta-g", "c" });
+		
+		assertEquals("c", abbreviating.parseArgs(abbreviated).alphaBetaGamma);
+		assertThrows(UnknownArgument.class, () -> new ArgumentParser<>(LookupArgs.class).parseArgs(abbreviated));
+	}
+}
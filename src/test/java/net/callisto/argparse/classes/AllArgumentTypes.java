@@ -2,6 +2,7 @@ package net.callisto.argparse.classes;
 
 import net.callisto.argparse.*;
 
+@GenerateParser
 public class AllArgumentTypes {
 	@Argument(type = ArgumentType.DEFAULT, positional = true)
 	public String  defaultType;
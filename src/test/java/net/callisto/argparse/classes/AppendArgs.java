@@ -0,0 +1,19 @@
+package net.callisto.argparse.classes;
+
+import net.callisto.argparse.*;
+
+import java.nio.file.*;
+import java.util.*;
+
+public class AppendArgs {
+	@Argument(shortName = "n", type = ArgumentType.APPEND)
+	public int[]      numbers;
+	@Argument(type = ArgumentType.APPEND, optional = true)
+	public long[]     ids;
+	@Argument(type = ArgumentType.APPEND, optional = true)
+	public double[]   weights;
+	@Argument(shortName = "i", type = ArgumentType.APPEND, optional = true)
+	public String[]   include;
+	@Argument(type = ArgumentType.APPEND, optional = true)
+	public List<Path> paths;
+}
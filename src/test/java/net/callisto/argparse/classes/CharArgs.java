@@ -0,0 +1,13 @@
+package net.callisto.argparse.classes;
+
+import net.callisto.argparse.*;
+
+@GenerateParser
+public class CharArgs {
+	@Argument(positional = true)
+	public char      letter;
+	@Argument(positional = true)
+	public Character wrappedLetter;
+	@Argument(type = ArgumentType.COUNT, shortName = "c")
+	public Double    count;
+}
@@ -4,6 +4,7 @@ import net.callisto.argparse.*;
 
 import java.io.*;
 
+@GenerateParser
 public class ClassWithUnregisteredType {
 	@Argument(positional = true)
 	public RandomAccessFile raf;
@@ -0,0 +1,23 @@
+package net.callisto.argparse.classes;
+
+import net.callisto.argparse.*;
+
+import java.nio.file.*;
+import java.util.*;
+
+public class CompletionArgs {
+	@Argument(positional = true)
+	public Path       input;
+	@Argument(positional = true)
+	public String     mode;
+	@Argument(shortName = "o", optional = true)
+	public Path       output;
+	@Argument(shortName = "n", optional = true)
+	public String     name;
+	@Argument(shortName = "v", type = ArgumentType.COUNT)
+	public int        verbosity;
+	@Argument(type = ArgumentType.TRUE_IF_PRESENT, optional = true)
+	public boolean    dryRun;
+	@Argument(shortName = "I", type = ArgumentType.APPEND, optional = true)
+	public List<Path> include;
+}
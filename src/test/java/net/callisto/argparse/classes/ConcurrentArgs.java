@@ -0,0 +1,15 @@
+package net.callisto.argparse.classes;
+
+import net.callisto.argparse.*;
+
+@GenerateParser
+public class ConcurrentArgs {
+	@Argument(positional = true)
+	public int     id;
+	@Argument(shortName = "n", optional = true)
+	public String  name;
+	@Argument(shortName = "v", type = ArgumentType.COUNT)
+	public int     verbosity;
+	@Argument(type = ArgumentType.TRUE_IF_PRESENT, optional = true)
+	public boolean flag;
+}
@@ -5,6 +5,7 @@ import net.callisto.argparse.*;
 import java.io.*;
 import java.nio.file.*;
 
+@GenerateParser
 public class DefaultInbuiltArgs {
 	@Argument(positional = true)
 	public String aString;
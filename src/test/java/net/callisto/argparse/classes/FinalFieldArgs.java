@@ -0,0 +1,18 @@
+package net.callisto.argparse.classes;
+
+import net.callisto.argparse.*;
+
+import java.nio.file.*;
+
+public final class FinalFieldArgs {
+	@Argument(positional = true)
+	public final Path input;
+	@Argument(shortName = "l", optional = true)
+	public final long limit;
+	
+	@Argument
+	FinalFieldArgs(final Path input, final long limit) {
+		this.input = input;
+		this.limit = limit;
+	}
+}
@@ -0,0 +1,17 @@
+package net.callisto.argparse.classes;
+
+import net.callisto.argparse.*;
+
+import java.nio.file.*;
+import java.util.function.*;
+
+public class LazyArgs {
+	@Argument(positional = true)
+	public Lazy<Path>        input;
+	@Argument(shortName = "p", optional = true)
+	public Supplier<Integer> port;
+	@Argument(optional = true)
+	public Lazy<Integer>     retries;
+	@Argument(shortName = "v", type = ArgumentType.COUNT)
+	public int               verbosity;
+}
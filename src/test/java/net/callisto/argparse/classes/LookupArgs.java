@@ -0,0 +1,15 @@
+package net.callisto.argparse.classes;
+
+import net.callisto.argparse.*;
+
+@GenerateParser
+public class LookupArgs {
+	@Argument(shortName = "ä", type = ArgumentType.TRUE_IF_PRESENT, optional = true)
+	public boolean umlaut;
+	@Argument(shortName = "a", optional = true)
+	public String  alpha;
+	@Argument(optional = true)
+	public String  alphaBeta;
+	@Argument(optional = true)
+	public String  alphaBetaGamma;
+}
@@ -2,6 +2,7 @@ package net.callisto.argparse.classes;
 
 import net.callisto.argparse.*;
 
+@GenerateParser
 public class OnlyCount {
 	@Argument(type = ArgumentType.COUNT)
 	public int count;
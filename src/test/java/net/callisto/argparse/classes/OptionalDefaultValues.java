@@ -4,6 +4,7 @@ import net.callisto.argparse.*;
 
 import java.nio.file.*;
 
+@GenerateParser
 public class OptionalDefaultValues {
 	@Argument(optional = true)
 	public String aString;
@@ -2,6 +2,7 @@ package net.callisto.argparse.classes;
 
 import net.callisto.argparse.*;
 
+@GenerateParser
 public class PrimitiveArgs {
 	@Argument(positional = true)
 	public boolean booleanPrimitive;
@@ -0,0 +1,24 @@
+package net.callisto.argparse.classes;
+
+import net.callisto.argparse.*;
+
+public class PrivateFieldArgs {
+	@Argument(positional = true)
+	private int    anInt;
+	@Argument(positional = true)
+	private double aDouble;
+	@Argument(positional = true)
+	private String aString;
+	
+	public int getAnInt() {
+		return anInt;
+	}
+	
+	public double getADouble() {
+		return aDouble;
+	}
+	
+	public String getAString() {
+		return aString;
+	}
+}
@@ -0,0 +1,21 @@
+package net.callisto.argparse.classes;
+
+import net.callisto.argparse.*;
+
+import java.util.*;
+
+public record RecordArgs(
+	@Argument(positional = true) String name,
+	@Argument(shortName = "p", optional = true, help = "Port to listen on") int port,
+	@Argument(shortName = "v", type = ArgumentType.COUNT) int verbosity,
+	@Argument(type = ArgumentType.TRUE_IF_PRESENT, optional = true) boolean dryRun,
+	@Argument(
+		shortName = "t", type = ArgumentType.APPEND, optional = true, help = "Tag added to every request, may be given more than once"
+	) List<String> tags
+) {
+	public RecordArgs {
+		if (port < 0) {
+			throw new IllegalArgumentException("port must not be negative");
+		}
+	}
+}
@@ -0,0 +1,15 @@
+package net.callisto.argparse.classes;
+
+import net.callisto.argparse.*;
+
+@GenerateParser
+public class ShortClusterArgs {
+	@Argument(shortName = "v", type = ArgumentType.COUNT)
+	public int     verbosity;
+	@Argument(shortName = "q", type = ArgumentType.TRUE_IF_PRESENT, optional = true)
+	public boolean quiet;
+	@Argument(shortName = "n", optional = true)
+	public String  name;
+	@Argument(shortName = "o", optional = true)
+	public String  output;
+}
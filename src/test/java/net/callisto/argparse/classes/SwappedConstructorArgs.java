@@ -0,0 +1,17 @@
+package net.callisto.argparse.classes;
+
+import net.callisto.argparse.*;
+
+// the parameters are in another order than the fields, they are matched by name
+public final class SwappedConstructorArgs {
+	@Argument(shortName = "s")
+	public final String source;
+	@Argument(shortName = "t")
+	public final String target;
+	
+	@Argument
+	SwappedConstructorArgs(final String target, final String source) {
+		this.source = source;
+		this.target = target;
+	}
+}
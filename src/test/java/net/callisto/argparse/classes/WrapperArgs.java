@@ -2,6 +2,7 @@ package net.callisto.argparse.classes;
 
 import net.callisto.argparse.*;
 
+@GenerateParser
 public class WrapperArgs {
 	@Argument(positional = true)
 	public Boolean booleanWrapper;
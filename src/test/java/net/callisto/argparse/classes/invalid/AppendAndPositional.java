@@ -0,0 +1,8 @@
+package net.callisto.argparse.classes.invalid;
+
+import net.callisto.argparse.*;
+
+public class AppendAndPositional {
+	@Argument(positional = true, type = ArgumentType.APPEND)
+	public String[] strings;
+}
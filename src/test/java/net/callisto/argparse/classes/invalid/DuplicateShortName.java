@@ -0,0 +1,10 @@
+package net.callisto.argparse.classes.invalid;
+
+import net.callisto.argparse.*;
+
+public class DuplicateShortName {
+	@Argument(shortName = "x", positional = true)
+	public String first;
+	@Argument(shortName = "x", optional = true)
+	public String second;
+}
@@ -0,0 +1,16 @@
+package net.callisto.argparse.classes.invalid;
+
+import net.callisto.argparse.*;
+
+public class MismatchedConstructor {
+	@Argument
+	public final String name;
+	@Argument
+	public final int    count;
+	
+	@Argument
+	public MismatchedConstructor(final String title, final int count) {
+		this.name  = title;
+		this.count = count;
+	}
+}